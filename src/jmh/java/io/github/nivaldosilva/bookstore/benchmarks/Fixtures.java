@@ -0,0 +1,127 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.entities.Customer;
+import io.github.nivaldosilva.bookstore.entities.Order;
+import io.github.nivaldosilva.bookstore.entities.OrderItem;
+import io.github.nivaldosilva.bookstore.entities.UuidV7Generator;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.github.nivaldosilva.bookstore.enums.OrderStatus;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Entity fixtures and in-memory repository stubs shared by the benchmarks. Stubs are plain JDK
+ * proxies rather than mocks so that the measured code, not the mocking framework, dominates.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static Author author() {
+        return Author.builder()
+                .id(UuidV7Generator.next())
+                .name("Machado de Assis")
+                .nationality("Brasileira")
+                .birthDate(LocalDate.of(1839, 6, 21))
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    static Book book(Author author, int sequence) {
+        return Book.builder()
+                .id(UuidV7Generator.next())
+                .isbn(String.format("978%010d", sequence))
+                .title("Memórias Póstumas de Brás Cubas, volume " + sequence)
+                .synopsis("Romance narrado por um defunto autor que revisita a própria vida com ironia.")
+                .genre(Genre.FICTION)
+                .publicationDate(LocalDate.of(1881, 1, 1))
+                .price(new BigDecimal("39.90").add(BigDecimal.valueOf(sequence % 100, 2)))
+                .stockQuantity(1000)
+                .author(author)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    static List<Book> books(int count) {
+        Author author = author();
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(book(author, i));
+        }
+        return books;
+    }
+
+    static Customer customer() {
+        return Customer.builder()
+                .id(UuidV7Generator.next())
+                .fullName("Capitu Pádua")
+                .email("capitu@example.com")
+                .password("encoded")
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    static Order order(int itemCount) {
+        Order order = Order.builder()
+                .id(UuidV7Generator.next())
+                .customer(customer())
+                .status(OrderStatus.PENDING)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+        BigDecimal total = BigDecimal.ZERO;
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (Book book : books(itemCount)) {
+            BigDecimal totalPrice = book.getPrice().multiply(BigDecimal.valueOf(2));
+            items.add(OrderItem.builder()
+                    .id(UuidV7Generator.next())
+                    .order(order)
+                    .book(book)
+                    .quantity(2)
+                    .unitPrice(book.getPrice())
+                    .totalPrice(totalPrice)
+                    .build());
+            total = total.add(totalPrice);
+        }
+        order.setItems(items);
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    /**
+     * Implements {@code type} with the given method bodies, keyed by method name. Calling any other
+     * method fails, so a benchmark notices when the code under test starts using something new.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> body = methods.get(method.getName());
+            if (body != null) {
+                return body.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+
+}
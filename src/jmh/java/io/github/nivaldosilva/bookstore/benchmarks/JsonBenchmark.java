@@ -0,0 +1,53 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
+import io.github.nivaldosilva.bookstore.mappers.BookMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Serializes a book listing page the way the HTTP message converter does: a writer resolved once
+ * for the response type, writing to bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private PagedResponse<BookResponse> page;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(PagedResponse.class);
+        List<BookResponse> content = Fixtures.books(pageSize).stream().map(BookMapper::toResponse).toList();
+        page = new PagedResponse<>(content, 0, pageSize, 10_000L, 10_000 / pageSize, true, false);
+    }
+
+    @Benchmark
+    public byte[] pagedBooksToJson() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
+import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.entities.Order;
+import io.github.nivaldosilva.bookstore.mappers.BookMapper;
+import io.github.nivaldosilva.bookstore.mappers.OrderMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Book book;
+
+    @State(Scope.Benchmark)
+    public static class OrderState {
+
+        @Param({ "1", "10", "50" })
+        private int orderItems;
+
+        private Order order;
+
+        @Setup
+        public void setUp() {
+            order = Fixtures.order(orderItems);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        book = Fixtures.books(1).get(0);
+    }
+
+    @Benchmark
+    public BookResponse bookToResponse() {
+        return BookMapper.toResponse(book);
+    }
+
+    @Benchmark
+    public OrderResponse orderToResponse(OrderState state) {
+        return OrderMapper.toResponse(state.order);
+    }
+
+}
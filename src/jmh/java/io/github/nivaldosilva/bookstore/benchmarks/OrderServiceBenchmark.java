@@ -0,0 +1,92 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.config.SingleFlightProperties;
+import io.github.nivaldosilva.bookstore.dtos.request.OrderItemRequest;
+import io.github.nivaldosilva.bookstore.dtos.request.OrderRequest;
+import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.entities.Customer;
+import io.github.nivaldosilva.bookstore.entities.Order;
+import io.github.nivaldosilva.bookstore.entities.UuidV7Generator;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderOutboxRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderRepository;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import io.github.nivaldosilva.bookstore.services.usecases.BookCache;
+import io.github.nivaldosilva.bookstore.services.usecases.OrderServiceImpl;
+import io.github.nivaldosilva.bookstore.services.usecases.SingleFlight;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Runs {@link OrderServiceImpl#createOrder} against in-memory repositories, so the figure covers
+ * the in-process work of an order (item merging, stock reservation calls, {@code BigDecimal}
+ * line and order totals, cache eviction and mapping) without any database time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({ "1", "10", "50" })
+    private int orderItems;
+
+    private OrderServiceImpl orderService;
+    private OrderRequest request;
+
+    @Setup
+    public void setUp() {
+        Customer customer = Fixtures.customer();
+        List<Book> books = Fixtures.books(orderItems);
+
+        CustomerRepository customerRepository = Fixtures.stub(CustomerRepository.class, Map.of(
+                "findByEmail", args -> Optional.of(customer)));
+        BookRepository bookRepository = Fixtures.stub(BookRepository.class, Map.of(
+                "findByIsbnIn", args -> books,
+                "decrementStock", args -> Set.of()));
+        OrderRepository orderRepository = Fixtures.stub(OrderRepository.class, Map.of(
+                "save", args -> {
+                    Order order = (Order) args[0];
+                    order.setId(UuidV7Generator.next());
+                    return order;
+                }));
+        StockLedger stockLedger = Fixtures.stub(StockLedger.class, Map.of(
+                "isTracked", args -> false));
+        OrderOutboxRepository outboxRepository = Fixtures.stub(OrderOutboxRepository.class, Map.of(
+                "save", args -> args[0]));
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        orderService = new OrderServiceImpl(orderRepository, outboxRepository, customerRepository, bookRepository,
+                stockLedger, null, new BookCache(cacheManager,
+                new SingleFlight(new SingleFlightProperties(true, Duration.ofSeconds(2), null))), cacheManager, null);
+        request = new OrderRequest(null, customer.getEmail(), books.stream()
+                .map(book -> new OrderItemRequest(book.getIsbn(), 2))
+                .toList());
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(request);
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.config.PasswordHashingProperties;
+import io.github.nivaldosilva.bookstore.config.SecurityConfig;
+import io.github.nivaldosilva.bookstore.config.UniquenessFilterProperties;
+import io.github.nivaldosilva.bookstore.dtos.request.CustomerRequest;
+import io.github.nivaldosilva.bookstore.dtos.response.CustomerResponse;
+import io.github.nivaldosilva.bookstore.entities.Customer;
+import io.github.nivaldosilva.bookstore.entities.UuidV7Generator;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import io.github.nivaldosilva.bookstore.services.usecases.CustomerServiceImpl;
+import io.github.nivaldosilva.bookstore.services.usecases.PasswordHasher;
+import io.github.nivaldosilva.bookstore.services.usecases.UniquenessFilters;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Runs {@link CustomerServiceImpl#registerCustomer} against an in-memory repository, through the
+ * {@link PasswordHasher} worker pool. BCrypt dominates the call; strength 10 is the
+ * {@code bookstore.password-hashing.bcrypt-strength} default, and each step up doubles the cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncodingBenchmark {
+
+    @Param({ "10", "12" })
+    private int strength;
+
+    private PasswordHasher passwordHasher;
+    private CustomerServiceImpl customerService;
+    private CustomerRequest request;
+
+    @Setup
+    public void setUp() {
+        CustomerRepository customerRepository = Fixtures.stub(CustomerRepository.class, Map.of(
+                "existsByEmail", args -> false,
+                "save", args -> {
+                    Customer customer = (Customer) args[0];
+                    customer.setId(UuidV7Generator.next());
+                    return customer;
+                },
+                "flush", args -> null));
+        PlatformTransactionManager transactionManager = Fixtures.stub(PlatformTransactionManager.class, Map.of(
+                "getTransaction", args -> new SimpleTransactionStatus(),
+                "commit", args -> null));
+        PasswordHashingProperties properties = new PasswordHashingProperties(SecurityConfig.BCRYPT, strength, 0, 64);
+        passwordHasher = new PasswordHasher(new SecurityConfig().passwordEncoder(properties), properties);
+        UniquenessFilters uniquenessFilters = new UniquenessFilters(Fixtures.stub(BookRepository.class, Map.of()),
+                customerRepository, Fixtures.stub(AuthorRepository.class, Map.of()), transactionManager,
+                new UniquenessFilterProperties(false, 1000, 0.01, Duration.ofHours(1)));
+        customerService = new CustomerServiceImpl(customerRepository, passwordHasher, uniquenessFilters, null,
+                transactionManager);
+        request = new CustomerRequest(null, "Capitu Pádua", "capitu@example.com", "S3nh@-Forte-2024", null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Benchmark
+    public CustomerResponse registerCustomer() {
+        return customerService.registerCustomer(request);
+    }
+
+}
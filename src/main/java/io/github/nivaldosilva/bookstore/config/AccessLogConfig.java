@@ -0,0 +1,28 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the access log as the outermost filter, so requests turned away by the concurrency
+ * limiter are logged too. Lines go to the {@code bookstore.access} logger, which
+ * {@code logback-spring.xml} writes through an async appender.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bookstore.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogConfig {
+
+    @Bean
+    FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogProperties properties) {
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(
+                new AccessLogFilter(properties.sampleRate()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+}
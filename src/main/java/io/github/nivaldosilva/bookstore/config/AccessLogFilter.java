@@ -0,0 +1,133 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes one JSON line per request with the route template, status, latency and JDBC work. Successful
+ * reads are sampled at {@code sampleRate} and the line records the rate, so counts can be scaled
+ * back; writes and errors are always logged. The sampling decision is taken before the line is
+ * built, so skipped requests cost no allocation. Async requests are logged when the response
+ * completes.
+ */
+class AccessLogFilter extends OncePerRequestFilter {
+
+    static final String LOGGER_NAME = "bookstore.access";
+
+    private static final Logger accessLogger = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final double sampleRate;
+
+    AccessLogFilter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !accessLogger.isInfoEnabled()
+                || request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(start));
+            } else {
+                log(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        boolean sampled = read && status < 400;
+        if (sampled && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        JdbcActivity activity = (JdbcActivity) request.getAttribute(JdbcActivity.REQUEST_ATTRIBUTE);
+        accessLogger.info(line(Instant.now(), request.getMethod(), route != null ? route.toString() : UNKNOWN_ROUTE,
+                status, elapsedNanos, activity, sampled ? sampleRate : 1.0));
+    }
+
+    static String line(Instant timestamp, String method, String route, int status, long elapsedNanos,
+            JdbcActivity activity, double sampleRate) {
+        StringBuilder json = new StringBuilder(192)
+                .append("{\"ts\":\"").append(timestamp)
+                .append("\",\"method\":\"");
+        appendEscaped(json, method);
+        json.append("\",\"route\":\"");
+        appendEscaped(json, route);
+        json.append("\",\"status\":").append(status)
+                .append(",\"durationMs\":").append(TimeUnit.NANOSECONDS.toMicros(elapsedNanos) / 1000.0);
+        if (activity != null) {
+            json.append(",\"queries\":").append(activity.statements())
+                    .append(",\"rows\":").append(activity.rows());
+        }
+        return json.append(",\"sampleRate\":").append(sampleRate).append('}').toString();
+    }
+
+    private static void appendEscaped(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final long start;
+
+        CompletionListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log((HttpServletRequest) event.getSuppliedRequest(),
+                    ((HttpServletResponse) event.getSuppliedResponse()).getStatus(), start);
+        }
+
+        // The container completes timed out and failed requests too, with their final status.
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code sampleRate} is the share of successful GET and HEAD requests written to the access log;
+ * writes and every response with status 400 or above are always logged.
+ */
+@ConfigurationProperties(prefix = "bookstore.access-log")
+public record AccessLogProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("0.1")
+        double sampleRate) {
+}
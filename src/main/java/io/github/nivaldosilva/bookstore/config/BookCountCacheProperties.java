@@ -0,0 +1,15 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bookstore.book-count-cache")
+public record BookCountCacheProperties(
+
+        @DefaultValue("PT10M")
+        Duration estimateTtl,
+
+        @DefaultValue("1000")
+        int maxEntries) {
+}
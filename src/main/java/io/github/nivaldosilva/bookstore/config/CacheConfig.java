@@ -0,0 +1,18 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Caching advice wraps the transactional one, so @CacheEvict runs after the write has committed.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties({ BookCountCacheProperties.class, UniquenessFilterProperties.class,
+        SingleFlightProperties.class })
+public class CacheConfig {
+
+    public static final String AUTHORS = "authors";
+    public static final String CUSTOMERS = "customers";
+
+}
@@ -0,0 +1,134 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nivaldosilva.bookstore.dtos.common.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps the number of requests in progress. On platform threads the Tomcat pool is that cap; on
+ * virtual threads there is none, and thousands of requests would queue inside HikariCP until its
+ * connection timeout. Here a request waits at most {@code acquireTimeout} for a permit and is then
+ * turned away with 503. Async requests, such as the NDJSON exports, keep their permit until the
+ * response completes.
+ */
+class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String OVERLOADED = "Servidor sobrecarregado. Tente novamente em instantes.";
+
+    private final int maxConcurrentRequests;
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeout = acquireTimeout;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("bookstore.requests.limiter.rejected")
+                .description("Requests turned away because every permit was in use")
+                .register(meterRegistry);
+        Gauge.builder("bookstore.requests.limiter.active", this, ConcurrencyLimitFilter::activeRequests)
+                .description("Requests holding a permit")
+                .register(meterRegistry);
+        Gauge.builder("bookstore.requests.limiter.limit", this, filter -> filter.maxConcurrentRequests)
+                .register(meterRegistry);
+    }
+
+    int activeRequests() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(OVERLOADED));
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(released));
+            } else {
+                release(released);
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+
+    private final class ReleasingListener implements AsyncListener {
+
+        private final AtomicBoolean released;
+
+        ReleasingListener(AtomicBoolean released) {
+            this.released = released;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of {@code IdempotentRequests}. {@code inFlightTimeout} is how long a duplicate waits for
+ * the request it joined; {@code inFlightLease} is how long the Redis in-flight marker outlives its
+ * last refresh, renewed every {@code inFlightRefreshInterval} while the request runs, so it only
+ * lapses once the owning node stops.
+ */
+@ConfigurationProperties(prefix = "bookstore.idempotency")
+public record IdempotencyProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("PT24H")
+        Duration ttl,
+
+        @DefaultValue("10000")
+        long maxEntries,
+
+        @DefaultValue("PT30S")
+        Duration inFlightTimeout,
+
+        @DefaultValue("PT30S")
+        Duration inFlightLease,
+
+        @DefaultValue("PT10S")
+        Duration inFlightRefreshInterval,
+
+        @DefaultValue("false")
+        boolean remoteEnabled,
+
+        @DefaultValue("bookstore:idempotency:")
+        String keyPrefix) {
+}
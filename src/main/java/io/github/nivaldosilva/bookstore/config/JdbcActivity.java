@@ -0,0 +1,91 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JDBC work done by the current thread since {@link #begin()}. {@link QueryCountingDataSource}
+ * reports into it and {@link QueryMetricsFilter} opens one scope per request; calls made
+ * outside a scope, such as scheduled jobs or the async part of the NDJSON exports, are not counted.
+ */
+final class JdbcActivity {
+
+    // Request attribute under which the finished scope is left for the access log.
+    static final String REQUEST_ATTRIBUTE = JdbcActivity.class.getName();
+
+    // Bounds the per-request memory of a request that builds its SQL dynamically.
+    static final int MAX_TRACKED_STATEMENTS = 256;
+
+    private static final ThreadLocal<JdbcActivity> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+    private final Map<String, StatementStats> statementStats = new LinkedHashMap<>();
+
+    private JdbcActivity() {
+    }
+
+    /** Executions and slowest execution of one SQL string within the scope. */
+    static final class StatementStats {
+
+        private int executions;
+        private long maxNanos;
+
+        int executions() {
+            return executions;
+        }
+
+        long maxNanos() {
+            return maxNanos;
+        }
+    }
+
+    static JdbcActivity begin() {
+        JdbcActivity activity = new JdbcActivity();
+        CURRENT.set(activity);
+        return activity;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted(String sql, long elapsedNanos) {
+        JdbcActivity activity = CURRENT.get();
+        if (activity == null) {
+            return;
+        }
+        activity.statements++;
+        StatementStats stats = activity.statementStats.get(sql);
+        if (stats == null) {
+            if (activity.statementStats.size() >= MAX_TRACKED_STATEMENTS) {
+                return;
+            }
+            stats = new StatementStats();
+            activity.statementStats.put(sql, stats);
+        }
+        stats.executions++;
+        stats.maxNanos = Math.max(stats.maxNanos, elapsedNanos);
+    }
+
+    static void rowFetched() {
+        JdbcActivity activity = CURRENT.get();
+        if (activity != null) {
+            activity.rows++;
+        }
+    }
+
+    long statements() {
+        return statements;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    Map<String, StatementStats> statementStats() {
+        return Collections.unmodifiableMap(statementStats);
+    }
+
+}
@@ -0,0 +1,51 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Application metrics on top of the Actuator defaults: {@code bookstore.service} timers for every
+ * method of the {@code @Timed} services, and JDBC statements and rows per request, checked by the
+ * {@link QueryDetector}. Everything is scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryDetectorProperties.class)
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "bookstore.service";
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)
+                        ? new QueryCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(MeterRegistry meterRegistry,
+            QueryDetectorProperties queryDetectorProperties) {
+        FilterRegistrationBean<QueryMetricsFilter> registration = new FilterRegistrationBean<>(
+                new QueryMetricsFilter(meterRegistry, new QueryDetector(queryDetectorProperties, meterRegistry)));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+}
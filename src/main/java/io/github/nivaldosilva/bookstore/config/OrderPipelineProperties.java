@@ -0,0 +1,22 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The dispatcher always runs: orders are settled only through the outbox. An event that fails
+ * {@code maxAttempts} times on its own is left in the table and no longer retried.
+ */
+@ConfigurationProperties(prefix = "bookstore.order-pipeline")
+public record OrderPipelineProperties(
+
+        @DefaultValue("PT1S")
+        Duration dispatchInterval,
+
+        @DefaultValue("100")
+        int batchSize,
+
+        @DefaultValue("5")
+        int maxAttempts) {
+}
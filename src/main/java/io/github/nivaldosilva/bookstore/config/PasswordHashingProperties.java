@@ -0,0 +1,25 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code algorithm} is the encoder used for new hashes ({@code bcrypt}, {@code argon2} or
+ * {@code pbkdf2}); hashes made with another algorithm or a lower BCrypt strength are rewritten the
+ * next time the password is verified. {@code workers} of 0 uses one worker per available processor.
+ */
+@ConfigurationProperties(prefix = "bookstore.password-hashing")
+public record PasswordHashingProperties(
+
+        @DefaultValue("bcrypt")
+        String algorithm,
+
+        @DefaultValue("10")
+        int bcryptStrength,
+
+        @DefaultValue("0")
+        int workers,
+
+        @DefaultValue("64")
+        int queueCapacity) {
+}
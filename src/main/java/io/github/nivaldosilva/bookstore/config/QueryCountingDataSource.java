@@ -0,0 +1,110 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the connection pool so every statement execution, with its SQL and duration, and every row
+ * read from a result set is reported to {@link JdbcActivity}. A JDBC batch counts as one statement,
+ * as it is one round trip. {@code unwrap} still reaches the pool, so pool metrics and sizing keep
+ * working.
+ */
+class QueryCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final String UNKNOWN_SQL = "<batch>";
+    private static final Set<String> RESULT_SET_METHODS = Set.of("executeQuery", "getResultSet", "getGeneratedKeys");
+
+    QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        return proxy(Connection.class, target, (method, args, invocation) -> {
+            Object result = invocation.proceed();
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                case "prepareStatement" -> statement(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (CallableStatement) result, (String) args[0]);
+                default -> result;
+            };
+        });
+    }
+
+    // Prepared statements carry their SQL from creation; plain statements name it on each execute.
+    private static <S extends Statement> S statement(Class<S> type, S target, String preparedSql) {
+        return proxy(type, target, (method, args, invocation) -> {
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                Object result = invocation.proceed();
+                return result instanceof ResultSet resultSet && RESULT_SET_METHODS.contains(method.getName())
+                        ? resultSet(resultSet)
+                        : result;
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text : UNKNOWN_SQL;
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                return result instanceof ResultSet resultSet ? resultSet(resultSet) : result;
+            } finally {
+                JdbcActivity.statementExecuted(sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet target) {
+        return proxy(ResultSet.class, target, (method, args, invocation) -> {
+            Object result = invocation.proceed();
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                JdbcActivity.rowFetched();
+            }
+            return result;
+        });
+    }
+
+    private interface Invocation {
+
+        Object proceed() throws Throwable;
+
+    }
+
+    private interface Interceptor {
+
+        Object intercept(Method method, Object[] args, Invocation invocation) throws Throwable;
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        return (T) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> interceptor.intercept(method, args, () -> {
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                }));
+    }
+
+}
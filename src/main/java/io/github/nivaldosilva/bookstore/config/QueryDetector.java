@@ -0,0 +1,100 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Inspects the JDBC work of a finished request for lazy-loading storms and slow statements. Each
+ * finding is logged as one structured warning naming the handler and the offending SQL, and counted
+ * in {@code bookstore.http.jdbc.violations}.
+ */
+class QueryDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryDetector.class);
+
+    enum ViolationType {
+
+        REPEATED_STATEMENT("repeated-statement"),
+        TOO_MANY_STATEMENTS("too-many-statements"),
+        SLOW_STATEMENT("slow-statement");
+
+        private final String tag;
+
+        ViolationType(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    record Violation(ViolationType type, String sql, long observed, long threshold) {
+    }
+
+    static class QueryBudgetExceededException extends IllegalStateException {
+
+        QueryBudgetExceededException(String handler, List<Violation> violations) {
+            super("JDBC budget exceeded by " + handler + ": " + violations);
+        }
+    }
+
+    private final QueryDetectorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    QueryDetector(QueryDetectorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    boolean failsOnViolation() {
+        return properties.enabled() && properties.failOnViolation();
+    }
+
+    List<Violation> inspect(JdbcActivity activity, String method, String uri, String handler) {
+        if (!properties.enabled()) {
+            return List.of();
+        }
+        List<Violation> violations = new ArrayList<>();
+        if (activity.statements() > properties.statementThreshold()) {
+            // Names the most executed statement, the usual place to start cutting round trips.
+            String mostExecuted = activity.statementStats().entrySet().stream()
+                    .max(Comparator.comparingInt(entry -> entry.getValue().executions()))
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+            violations.add(new Violation(ViolationType.TOO_MANY_STATEMENTS, mostExecuted, activity.statements(),
+                    properties.statementThreshold()));
+        }
+        long slowNanos = properties.slowStatementThreshold().toNanos();
+        for (Map.Entry<String, JdbcActivity.StatementStats> entry : activity.statementStats().entrySet()) {
+            JdbcActivity.StatementStats stats = entry.getValue();
+            if (stats.executions() > properties.repeatedStatementThreshold()) {
+                violations.add(new Violation(ViolationType.REPEATED_STATEMENT, entry.getKey(), stats.executions(),
+                        properties.repeatedStatementThreshold()));
+            }
+            if (stats.maxNanos() >= slowNanos) {
+                violations.add(new Violation(ViolationType.SLOW_STATEMENT, entry.getKey(),
+                        TimeUnit.NANOSECONDS.toMillis(stats.maxNanos()), properties.slowStatementThreshold().toMillis()));
+            }
+        }
+
+        for (Violation violation : violations) {
+            logger.warn("JDBC violation: type={} method={} uri={} handler={} observed={} threshold={} sql=\"{}\"",
+                    violation.type().tag, method, uri, handler, violation.observed(), violation.threshold(),
+                    violation.sql());
+            Counter.builder("bookstore.http.jdbc.violations")
+                    .description("Requests flagged for repeated, excessive or slow JDBC statements")
+                    .tags("type", violation.type().tag, "method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (!violations.isEmpty() && properties.failOnViolation()) {
+            throw new QueryBudgetExceededException(handler, violations);
+        }
+        return violations;
+    }
+
+}
@@ -0,0 +1,29 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits checked by {@link QueryDetector} after every request. {@code repeatedStatementThreshold}
+ * is how many times one SQL string may run in a request before it is reported as an N+1;
+ * {@code failOnViolation} turns reports into errors so integration tests catch them.
+ */
+@ConfigurationProperties(prefix = "bookstore.query-detector")
+public record QueryDetectorProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("10")
+        int repeatedStatementThreshold,
+
+        @DefaultValue("50")
+        int statementThreshold,
+
+        @DefaultValue("PT0.5S")
+        Duration slowStatementThreshold,
+
+        @DefaultValue("false")
+        boolean failOnViolation) {
+}
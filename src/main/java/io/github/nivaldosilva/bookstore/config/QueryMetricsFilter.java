@@ -0,0 +1,110 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.io.IOException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many JDBC statements each request executed and how many rows it read, tagged like
+ * {@code http.server.requests} with the method and the matched URI template, so the endpoints
+ * behind most database round trips stand out. The request's statements are then handed to the
+ * {@link QueryDetector}.
+ *
+ * <p>When the detector fails requests on violations, the response body is buffered until the
+ * budget has been checked, so a failing request never reaches the client as a committed 200.
+ * Streamed bodies are released once their async dispatch completes.
+ */
+class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final QueryDetector queryDetector;
+
+    QueryMetricsFilter(MeterRegistry meterRegistry, QueryDetector queryDetector) {
+        this.meterRegistry = meterRegistry;
+        this.queryDetector = queryDetector;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // The statements were counted on the initial dispatch; only the buffered body is left.
+            filterChain.doFilter(request, response);
+            releaseBody(response);
+            return;
+        }
+        HttpServletResponse target = queryDetector.failsOnViolation()
+                ? new ContentCachingResponseWrapper(response)
+                : response;
+        JdbcActivity activity = JdbcActivity.begin();
+        request.setAttribute(JdbcActivity.REQUEST_ATTRIBUTE, activity);
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            JdbcActivity.end();
+            record(request, activity);
+        }
+        queryDetector.inspect(activity, request.getMethod(), uri(request), handler(request));
+        if (!isAsyncStarted(request)) {
+            releaseBody(target);
+        }
+    }
+
+    private static void releaseBody(HttpServletResponse response) throws IOException {
+        ContentCachingResponseWrapper buffered = WebUtils.getNativeResponse(response,
+                ContentCachingResponseWrapper.class);
+        if (buffered != null) {
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    private void record(HttpServletRequest request, JdbcActivity activity) {
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri(request));
+        DistributionSummary.builder("bookstore.http.jdbc.statements")
+                .description("JDBC statements executed per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(activity.statements());
+        DistributionSummary.builder("bookstore.http.jdbc.rows")
+                .description("Rows read from JDBC result sets per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(activity.rows());
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN;
+    }
+
+    private static String handler(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        }
+        return handler != null ? handler.toString() : UNKNOWN;
+    }
+
+}
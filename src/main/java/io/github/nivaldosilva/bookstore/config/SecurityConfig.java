@@ -1,16 +1,36 @@
 package io.github.nivaldosilva.bookstore.config;
 
+import java.util.Map;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 
 @Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 public class SecurityConfig {
 
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, new BCryptPasswordEncoder(properties.bcryptStrength()),
+                ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(properties.algorithm())) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + properties.algorithm());
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(properties.algorithm(), encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt.
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return encoder;
     }
 
 }
@@ -0,0 +1,26 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bookstore.single-flight")
+public record SingleFlightProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("PT2S")
+        Duration timeout,
+
+        Map<String, Duration> timeouts) {
+
+    public SingleFlightProperties {
+        timeouts = timeouts != null ? Map.copyOf(timeouts) : Map.of();
+    }
+
+    public Duration timeout(String group) {
+        return timeouts.getOrDefault(group, timeout);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StockLedgerProperties.class)
+public class StockLedgerConfig {
+
+}
@@ -0,0 +1,21 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The ledger keeps the reservable stock in this instance's memory, and no other instance sees its
+ * reservations, so {@code enabled} must only be set where a single instance serves the API. While
+ * it is off, no book can be tracked; deltas committed but not yet flushed are still written on
+ * startup.
+ */
+@ConfigurationProperties(prefix = "bookstore.stock-ledger")
+public record StockLedgerProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("PT1S")
+        Duration flushInterval) {
+}
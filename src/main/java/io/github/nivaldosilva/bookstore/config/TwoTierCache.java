@@ -0,0 +1,183 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Near cache: a small per-node Caffeine tier in front of a shared remote tier. Reads fill the
+ * local tier from the remote one; evictions clear both and are broadcast by the
+ * {@link TwoTierCacheManager} so other nodes drop their local copy. The remote tier is best
+ * effort: when it is unreachable the cache keeps working locally and falls through to the loader.
+ *
+ * <p>A loaded value is only written to the remote tier if no eviction of its key, local or
+ * broadcast, reached this node while it loaded: such a load may have read the state the eviction
+ * was for, and writing it back would undo the eviction for every node.
+ */
+public class TwoTierCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCache.class);
+    private static final int EVICTION_STRIPES = 64;
+
+    private final String name;
+    private final CaffeineCache local;
+    private final Cache remote;
+    private final TwoTierCacheManager cacheManager;
+    // Evictions seen by this node, striped by key; keys sharing a stripe only cost a skipped write.
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+    private final AtomicLong clears = new AtomicLong();
+
+    TwoTierCache(String name, CaffeineCache local, Cache remote, TwoTierCacheManager cacheManager) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public CaffeineCache getLocal() {
+        return local;
+    }
+
+    public Cache getRemote() {
+        return remote;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper value = local.get(localKey);
+        if (value != null) {
+            return value;
+        }
+        value = remoteGet(key);
+        if (value != null) {
+            local.put(localKey, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        return local.get(localKey, () -> {
+            long stamp = evictionStamp(localKey);
+            ValueWrapper remoteValue = remoteGet(key);
+            if (remoteValue != null) {
+                return (T) remoteValue.get();
+            }
+            T value = valueLoader.call();
+            if (evictionStamp(localKey) == stamp) {
+                remotePut(key, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remotePut(key, value);
+        local.put(localKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        recordEviction(localKey);
+        try {
+            remote.evict(key);
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to evict '{}' from remote cache '{}': {}", key, name, ex.getMessage());
+        }
+        local.evict(localKey);
+        cacheManager.publishInvalidation(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        recordEviction(null);
+        try {
+            remote.clear();
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to clear remote cache '{}': {}", name, ex.getMessage());
+        }
+        local.clear();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    void invalidateLocal(String localKey) {
+        recordEviction(localKey);
+        if (localKey == null) {
+            local.clear();
+        } else {
+            local.evict(localKey);
+        }
+    }
+
+    // Recorded before the tiers are touched: the local eviction waits for a load in flight for the
+    // key, which must already see the new stamp when it finishes.
+    private void recordEviction(String localKey) {
+        if (localKey == null) {
+            clears.incrementAndGet();
+        } else {
+            evictions.incrementAndGet(stripe(localKey));
+        }
+    }
+
+    // Both counters only grow, so their sum changes whenever either does.
+    private long evictionStamp(String localKey) {
+        return clears.get() + evictions.get(stripe(localKey));
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), EVICTION_STRIPES);
+    }
+
+    private ValueWrapper remoteGet(Object key) {
+        try {
+            return remote.get(key);
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to read '{}' from remote cache '{}': {}", key, name, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void remotePut(Object key, Object value) {
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to write '{}' to remote cache '{}': {}", key, name, ex.getMessage());
+        }
+    }
+
+    // Invalidation messages carry keys as strings, so the local tier is keyed the same way.
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+}
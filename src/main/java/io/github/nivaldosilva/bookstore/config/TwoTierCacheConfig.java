@@ -0,0 +1,65 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Configuration
+@ConditionalOnProperty(prefix = "bookstore.two-tier-cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(TwoTierCacheProperties.class)
+public class TwoTierCacheConfig {
+
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper, TwoTierCacheProperties properties) {
+        GenericJackson2JsonRedisSerializer valueSerializer = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(objectMapper.copy())
+                .defaultTyping(true)
+                .build();
+        RedisCacheManager remoteCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(properties.remoteTtl())
+                        .prefixCacheNameWith(properties.keyPrefix())
+                        .disableCachingNullValues()
+                        .serializeValuesWith(SerializationPair.fromSerializer(valueSerializer)))
+                .enableStatistics()
+                .build();
+        return new TwoTierCacheManager(remoteCacheManager, redisTemplate, objectMapper, properties);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager, TwoTierCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(properties.channel()));
+        return container;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return (cache, tags) -> registry -> {
+            new CaffeineCacheMetrics<>(cache.getLocal().getNativeCache(), cache.getName(), Tags.concat(tags, "tier", "local"))
+                    .bindTo(registry);
+            if (cache.getRemote() instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, Tags.concat(tags, "tier", "remote")).bindTo(registry);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,92 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Builds {@link TwoTierCache}s over a remote {@link CacheManager} and keeps the local tiers of
+ * all nodes coherent: every eviction is published on a Redis channel, and messages from other
+ * nodes evict the matching local entry.
+ */
+public class TwoTierCacheManager extends AbstractCacheManager implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TwoTierCacheProperties properties;
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper, TwoTierCacheProperties properties) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    record Invalidation(String origin, String cache, String key) {
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return properties.cacheNames().stream()
+                .map(this::createCache)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), Invalidation.class);
+        } catch (IOException ex) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", ex.getMessage());
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        if (lookupCache(invalidation.cache()) instanceof TwoTierCache cache) {
+            cache.invalidateLocal(invalidation.key());
+        }
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new Invalidation(nodeId, cacheName, key));
+            redisTemplate.convertAndSend(properties.channel(), payload);
+        } catch (JsonProcessingException | RuntimeException ex) {
+            logger.warn("Failed to publish invalidation of '{}' in cache '{}': {}", key, cacheName, ex.getMessage());
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        CaffeineCache local = new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(properties.localMaximumSize())
+                .expireAfterWrite(properties.localTtl())
+                .recordStats()
+                .build(), false);
+        return new TwoTierCache(name, local, remoteCacheManager.getCache(name), this);
+    }
+
+}
@@ -0,0 +1,31 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bookstore.two-tier-cache")
+public record TwoTierCacheProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue({ "books", "bookIdsByIsbn", "authors", "customers" })
+        List<String> cacheNames,
+
+        @DefaultValue("1000")
+        long localMaximumSize,
+
+        @DefaultValue("PT30S")
+        Duration localTtl,
+
+        @DefaultValue("PT10M")
+        Duration remoteTtl,
+
+        @DefaultValue("bookstore:")
+        String keyPrefix,
+
+        @DefaultValue("bookstore:cache-invalidation")
+        String channel) {
+}
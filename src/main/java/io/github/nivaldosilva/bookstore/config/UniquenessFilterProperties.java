@@ -0,0 +1,21 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bookstore.uniqueness-filter")
+public record UniquenessFilterProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("100000")
+        int expectedInsertions,
+
+        @DefaultValue("0.01")
+        double falsePositiveRate,
+
+        @DefaultValue("PT1H")
+        Duration rebuildInterval) {
+}
@@ -0,0 +1,88 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Streams this JVM's JFR virtual thread events into metrics. A virtual thread is pinned when it
+ * blocks inside a {@code synchronized} block or a native frame, which keeps its carrier thread
+ * busy. {@code jvm.threads.virtual.pinned} records every pin longer than the configured threshold,
+ * and the pinning stack is logged at debug level so the offending monitor can be found.
+ */
+class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED = "jdk.VirtualThreadSubmitFailed";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Counter submitFailed;
+    private volatile RecordingStream stream;
+
+    VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread while blocked")
+                .register(meterRegistry);
+        this.submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Virtual threads that could not be started or unparked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED).withThreshold(threshold).withStackTrace();
+        recording.enable(SUBMIT_FAILED);
+        recording.onEvent(PINNED, this::onPinned);
+        recording.onEvent(SUBMIT_FAILED, event -> submitFailed.increment());
+        recording.startAsync();
+        stream = recording;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(),
+                    topFrames(event.getStackTrace()));
+        }
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+
+}
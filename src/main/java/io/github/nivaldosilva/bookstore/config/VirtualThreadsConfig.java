@@ -0,0 +1,65 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled} is on. In that mode Spring Boot already runs
+ * Tomcat requests, {@code @Async} and MVC async work (the NDJSON exports) and scheduled tasks on
+ * virtual threads; this adds the request limiter that replaces the Tomcat pool as the bound on
+ * concurrent JDBC work, and the pinning monitor.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(DataSource dataSource,
+            VirtualThreadsProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        int limit = properties.maxConcurrentRequests() > 0
+                ? properties.maxConcurrentRequests()
+                : poolSize(dataSource) * properties.requestsPerConnection();
+        logger.info("Virtual threads enabled; limiting requests in progress to {}.", limit);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limit, properties.acquireTimeout(), objectMapper, meterRegistry));
+        // Ahead of Spring Security, so rejected requests cost as little as possible.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadsProperties properties,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties.pinnedThreshold(), meterRegistry);
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            logger.warn("Could not read the connection pool size; assuming {}.", HIKARI_DEFAULT_POOL_SIZE, ex);
+        }
+        return HIKARI_DEFAULT_POOL_SIZE;
+    }
+
+}
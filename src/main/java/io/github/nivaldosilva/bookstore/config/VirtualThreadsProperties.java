@@ -0,0 +1,26 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings that apply when {@code spring.threads.virtual.enabled} is on. A
+ * {@code maxConcurrentRequests} of zero sizes the request limiter from the connection pool as
+ * {@code maximumPoolSize * requestsPerConnection}.
+ */
+@ConfigurationProperties(prefix = "bookstore.virtual-threads")
+public record VirtualThreadsProperties(
+
+        @DefaultValue("0")
+        int maxConcurrentRequests,
+
+        @DefaultValue("4")
+        int requestsPerConnection,
+
+        @DefaultValue("PT1S")
+        Duration acquireTimeout,
+
+        @DefaultValue("20ms")
+        Duration pinnedThreshold) {
+}
@@ -9,12 +9,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,8 +25,8 @@ import java.util.UUID;
 @Tag(name = "Autores", description = "Operações relacionadas ao gerenciamento de autores de livros")
 public class AuthorController {
 
-    private static final Logger logger = LoggerFactory.getLogger(AuthorController.class);
     private final AuthorService authorService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Criar um novo autor", description = "Cria um novo autor no sistema com os dados fornecidos.")
     @ApiResponse(responseCode = "201", description = "Autor criado com sucesso.")
@@ -33,32 +34,39 @@ public class AuthorController {
     @ApiResponse(responseCode = "409", description = "Autor com o nome já existe.")
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<AuthorResponse> createAuthor(@Parameter(description = "Dados do autor a ser criado", required = true) @Valid @RequestBody AuthorRequest authorRequest) {
-        logger.info("Starting author creation for name: {}", authorRequest.name());
         AuthorResponse createdAuthor = authorService.createAuthor(authorRequest);
-        logger.info("Author created successfully.");
         return ResponseEntity.status(HttpStatus.CREATED).body(createdAuthor);
     }
 
     @Operation(summary = "Buscar autor por ID", description = "Recupera os detalhes de um autor específico pelo seu ID.")
     @ApiResponse(responseCode = "200", description = "Autor encontrado com sucesso.")
+    @ApiResponse(responseCode = "304", description = "Autor não modificado desde a versão informada em If-None-Match ou If-Modified-Since.")
     @ApiResponse(responseCode = "404", description = "Autor não encontrado.")
     @GetMapping("/{id}")
     public ResponseEntity<AuthorResponse> getAuthorById(
             @Parameter(description = "ID único do autor", required = true) @PathVariable UUID id) {
-        logger.info("Starting author search by ID: {}", id);
         AuthorResponse authorResponse = authorService.findAuthorById(id);
-        logger.info("Author found successfully.");
-        return ResponseEntity.ok(authorResponse);
+        return ConditionalResponses.ok(authorResponse, authorResponse.updatedAt());
     }
 
     @Operation(summary = "Listar todos os autores", description = "Retorna uma lista de todos os autores registrados.")
     @ApiResponse(responseCode = "200", description = "Lista de autores recuperada com sucesso.")
+    @ApiResponse(responseCode = "304", description = "Lista não modificada desde a versão informada em If-None-Match.")
     @GetMapping
-    public ResponseEntity<List<AuthorResponse>> getAllAuthors() {
-        logger.info("Starting search for all authors.");
+    public ResponseEntity<List<AuthorResponse>> getAllAuthors(WebRequest webRequest) {
+        String eTag = ConditionalResponses.listingTag(authorService.findListingVersion());
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<AuthorResponse> authors = authorService.findAllAuthors();
-        logger.info("Search for all authors completed.");
-        return ResponseEntity.ok(authors);
+        return ConditionalResponses.okListing(authors, eTag);
+    }
+
+    @Operation(summary = "Exportar autores", description = "Exporta todos os autores em NDJSON (um JSON por linha), em streaming, sem carregar a tabela inteira em memória.")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso.")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAuthors() {
+        return NdjsonResponses.<AuthorResponse>stream(objectMapper, "authors.ndjson", authorService::exportAuthors);
     }
 
     @Operation(summary = "Atualizar autor", description = "Atualiza os dados de um autor existente.")
@@ -70,9 +78,7 @@ public class AuthorController {
     public ResponseEntity<AuthorResponse> updateAuthor(
             @Parameter(description = "ID único do autor", required = true) @PathVariable UUID id,
             @Parameter(description = "Dados atualizados do autor", required = true) @Valid @RequestBody AuthorRequest authorRequest) {
-        logger.info("Starting author update for ID: {}", id);
         AuthorResponse updatedAuthor = authorService.updateAuthor(id, authorRequest);
-        logger.info("Author updated successfully.");
         return ResponseEntity.ok(updatedAuthor);
     }
 
@@ -82,9 +88,7 @@ public class AuthorController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAuthor(
             @Parameter(description = "ID único do autor", required = true) @PathVariable UUID id) {
-        logger.info("Starting author deletion by ID: {}", id);
         authorService.deleteAuthor(id);
-        logger.info("Author deleted successfully.");
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package io.github.nivaldosilva.bookstore.controllers;
 
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
 import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.BookRequest;
+import io.github.nivaldosilva.bookstore.dtos.response.BookImportResponse;
 import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
+import io.github.nivaldosilva.bookstore.enums.CountMode;
 import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.github.nivaldosilva.bookstore.enums.ImportFormat;
+import io.github.nivaldosilva.bookstore.services.interfaces.BookImportService;
 import io.github.nivaldosilva.bookstore.services.interfaces.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,15 +17,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
@@ -28,8 +38,10 @@ import java.util.UUID;
 @Tag(name = "Livros", description = "Operações de gerenciamento de livros")
 public class BookController {
 
-    private static final Logger logger = LoggerFactory.getLogger(BookController.class);
+    private static final String TEXT_CSV_VALUE = "text/csv";
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Criar um novo livro", description = "Cria um novo livro no sistema com os dados fornecidos.")
     @ApiResponse(responseCode = "201", description = "Livro criado com sucesso.")
@@ -39,26 +51,35 @@ public class BookController {
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<BookResponse> createBook(
             @Parameter(description = "Dados do livro a ser criado", required = true) @Valid @RequestBody BookRequest bookRequest) {
-        logger.info("Starting book creation with ISBN: {}", bookRequest.isbn());
         BookResponse createdBook = bookService.createBook(bookRequest);
-        logger.info("Book created successfully.");
         return ResponseEntity.status(HttpStatus.CREATED).body(createdBook);
     }
 
     @Operation(summary = "Buscar livro por ID", description = "Recupera os detalhes de um livro específico pelo seu ID.")
     @ApiResponse(responseCode = "200", description = "Livro encontrado com sucesso.")
+    @ApiResponse(responseCode = "304", description = "Livro não modificado desde a versão informada em If-None-Match ou If-Modified-Since.")
     @ApiResponse(responseCode = "404", description = "Livro não encontrado.")
     @GetMapping("/{id}")
     public ResponseEntity<BookResponse> getBookById(
             @Parameter(description = "ID único do livro", required = true) @PathVariable UUID id) {
-        logger.info("Starting book search by ID: {}", id);
         BookResponse bookResponse = bookService.findBookById(id);
-        logger.info("Book found successfully.");
-        return ResponseEntity.ok(bookResponse);
+        return ConditionalResponses.ok(bookResponse, bookResponse.updatedAt());
+    }
+
+    @Operation(summary = "Buscar livro por ISBN", description = "Retorna os detalhes de um livro específico com base no seu ISBN.")
+    @ApiResponse(responseCode = "200", description = "Livro encontrado com sucesso.")
+    @ApiResponse(responseCode = "304", description = "Livro não modificado desde a versão informada em If-None-Match ou If-Modified-Since.")
+    @ApiResponse(responseCode = "404", description = "Livro não encontrado.")
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<BookResponse> getBookByIsbn(
+            @Parameter(description = "ISBN do livro", required = true) @PathVariable String isbn) {
+        BookResponse bookResponse = bookService.findBookByIsbn(isbn);
+        return ConditionalResponses.ok(bookResponse, bookResponse.updatedAt());
     }
 
     @Operation(summary = "Listar todos os livros", description = "Retorna uma lista paginada de livros com opções de filtro por gênero e autor.")
     @ApiResponse(responseCode = "200", description = "Lista de livros recuperada com sucesso.")
+    @ApiResponse(responseCode = "304", description = "Página não modificada desde a versão informada em If-None-Match.")
     @GetMapping
     public ResponseEntity<PagedResponse<BookResponse>> findAllBooks(
             @Parameter(description = "Número da página (0-indexed)", example = "0") @RequestParam(defaultValue = "0") int page,
@@ -66,20 +87,47 @@ public class BookController {
             @Parameter(description = "Campo para ordenação", example = "title") @RequestParam(defaultValue = "title") String sortBy,
             @Parameter(description = "Direção da ordenação (ASC/DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection,
             @Parameter(description = "Gênero para filtrar", example = "FANTASY") @RequestParam(required = false) Genre genre,
-            @Parameter(description = "ID do autor para filtrar") @RequestParam(required = false) UUID authorId) {
+            @Parameter(description = "ID do autor para filtrar") @RequestParam(required = false) UUID authorId,
+            @Parameter(description = "Modo de contagem dos totais: exact (contados a cada requisição), estimate (contagem guardada por instância por até 10 minutos, também usada na ETag) ou none (sem totais; ETag só se a contagem já estiver guardada)", example = "exact") @RequestParam(defaultValue = "exact") String count,
+            WebRequest webRequest) {
+        Pageable pageable = PageRequest.of(page, size, Sort.Direction.fromString(sortDirection), sortBy);
 
-        logger.info(
-                "Starting book search with pagination: page={}, size={}, sortBy={}, sortDirection={}, genre={}, authorId={}",
-                page, size, sortBy, sortDirection, genre, authorId);
+        CountMode countMode = CountMode.valueOf(count.toUpperCase(Locale.ROOT));
 
-        Pageable pageable = PageRequest.of(page, size, Sort.Direction.fromString(sortDirection), sortBy);
+        ListingVersion version = bookService.findListingVersion(genre, authorId, countMode);
+        String eTag = ConditionalResponses.listingTag(version);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        PagedResponse<BookResponse> response = bookService.findAllBooks(pageable, genre, authorId, countMode, version);
 
-        PagedResponse<BookResponse> response = bookService.findAllBooks(pageable, genre, authorId);
+        return ConditionalResponses.okListing(response, eTag);
+    }
+
+    @Operation(summary = "Percorrer livros por cursor", description = "Retorna livros paginados por cursor (keyset), sem contagem de totais. Indicado para percorrer todo o catálogo.")
+    @ApiResponse(responseCode = "200", description = "Página de livros recuperada com sucesso.")
+    @ApiResponse(responseCode = "400", description = "Cursor ou paginação inválidos.")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPagedResponse<BookResponse>> scrollBooks(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio para a primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo 100)", example = "10") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação", example = "title") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Direção da ordenação (ASC/DESC)", example = "ASC") @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Gênero para filtrar", example = "FANTASY") @RequestParam(required = false) Genre genre,
+            @Parameter(description = "ID do autor para filtrar") @RequestParam(required = false) UUID authorId) {
+        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        CursorPagedResponse<BookResponse> response = bookService.scrollBooks(cursor, size, sort, genre, authorId);
 
-        logger.info("Book search completed. Total elements: {}", response.totalElements());
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Exportar livros", description = "Exporta todo o catálogo de livros em NDJSON (um JSON por linha), em streaming, sem carregar a tabela inteira em memória.")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso.")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        return NdjsonResponses.<BookResponse>stream(objectMapper, "books.ndjson", bookService::exportBooks);
+    }
+
     @Operation(summary = "Atualizar livro", description = "Atualiza os dados de um livro existente.")
     @ApiResponse(responseCode = "200", description = "Livro atualizado com sucesso.")
     @ApiResponse(responseCode = "400", description = "Dados inválidos.")
@@ -89,9 +137,7 @@ public class BookController {
     public ResponseEntity<BookResponse> updateBook(
             @Parameter(description = "ID único do livro", required = true) @PathVariable UUID id,
             @Parameter(description = "Dados atualizados do livro", required = true) @Valid @RequestBody BookRequest bookRequest) {
-        logger.info("Starting book update for ID: {}", id);
         BookResponse updatedBook = bookService.updateBook(id, bookRequest);
-        logger.info("Book updated successfully.");
         return ResponseEntity.ok(updatedBook);
     }
 
@@ -101,9 +147,39 @@ public class BookController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(
             @Parameter(description = "ID único do livro", required = true) @PathVariable UUID id) {
-        logger.info("Starting book deletion by ID: {}", id);
         bookService.deleteBook(id);
-        logger.info("Book deleted successfully.");
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Importar livros em lote", description = "Importa um arquivo CSV (com cabeçalho) ou NDJSON de livros. As linhas inválidas são rejeitadas individualmente e listadas no resultado, sem interromper a importação.")
+    @ApiResponse(responseCode = "200", description = "Importação concluída; o resultado informa as linhas rejeitadas e, se a estrutura do arquivo quebrar, a linha em que a leitura parou.")
+    @PostMapping(value = "/import", consumes = { TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<BookImportResponse> importBooks(
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @Parameter(hidden = true) InputStream body) {
+        ImportFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType) ? ImportFormat.NDJSON : ImportFormat.CSV;
+        BookImportResponse response = bookImportService.importBooks(body, format);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Ativar ledger de estoque", description = "Passa a reservar o estoque do livro em memória, para títulos com alta concorrência.")
+    @ApiResponse(responseCode = "204", description = "Ledger de estoque ativado com sucesso.")
+    @ApiResponse(responseCode = "404", description = "Livro não encontrado.")
+    @ApiResponse(responseCode = "409", description = "Ledger de estoque desativado nesta instalação.")
+    @PutMapping("/{id}/stock-ledger")
+    public ResponseEntity<Void> enableStockLedger(
+            @Parameter(description = "ID único do livro", required = true) @PathVariable UUID id) {
+        bookService.enableStockLedger(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Desativar ledger de estoque", description = "Grava as reservas pendentes no banco e volta a reservar o estoque diretamente no banco.")
+    @ApiResponse(responseCode = "204", description = "Ledger de estoque desativado com sucesso.")
+    @ApiResponse(responseCode = "404", description = "Livro não encontrado.")
+    @DeleteMapping("/{id}/stock-ledger")
+    public ResponseEntity<Void> disableStockLedger(
+            @Parameter(description = "ID único do livro", required = true) @PathVariable UUID id) {
+        bookService.disableStockLedger(id);
+        return ResponseEntity.noContent().build();
+    }
+}
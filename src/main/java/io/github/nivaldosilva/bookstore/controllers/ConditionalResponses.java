@@ -0,0 +1,73 @@
+package io.github.nivaldosilva.bookstore.controllers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
+import lombok.experimental.UtilityClass;
+
+/**
+ * GET responses that clients and CDNs may store but must revalidate before reuse. Spring answers a
+ * request whose If-None-Match or If-Modified-Since still matches with 304 before serializing the body.
+ */
+@UtilityClass
+class ConditionalResponses {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    // updated_at is stored to the second, rounded, so a listing is only tagged once that second is over.
+    private static final Duration UNSETTLED = Duration.ofSeconds(2);
+
+    // Strong tag: the update second plus a hash of the representation, because updated_at only has
+    // second precision and a book also shows its author's name.
+    static <T> ResponseEntity<T> ok(T body, LocalDateTime updatedAt) {
+        long updatedSecond = updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toEpochSecond() : 0;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(Long.toHexString(updatedSecond) + "-" + Long.toHexString(hash(body)));
+        if (updatedAt != null) {
+            builder.lastModified(updatedAt.atZone(ZoneId.systemDefault()));
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * Weak tag for a listing, taken from its {@link ListingVersion} so a matching request is answered
+     * before the listing is queried. Null without a version, or while the latest update is too recent
+     * to tell apart: a second write within the same updated_at second would leave the tag unchanged.
+     */
+    static String listingTag(ListingVersion version) {
+        if (version == null) {
+            return null;
+        }
+        LocalDateTime lastUpdatedAt = version.lastUpdatedAt();
+        if (lastUpdatedAt != null && !lastUpdatedAt.isBefore(LocalDateTime.now().minus(UNSETTLED))) {
+            return null;
+        }
+        long updatedSecond = lastUpdatedAt != null ? lastUpdatedAt.atZone(ZoneId.systemDefault()).toEpochSecond() : 0;
+        return "W/\"" + Long.toHexString(updatedSecond) + "-" + Long.toHexString(version.count()) + "\"";
+    }
+
+    // Listings send no Last-Modified: a page also changes when items enter or leave it.
+    static <T> ResponseEntity<T> okListing(T body, String eTag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        return builder.body(body);
+    }
+
+    // FNV-1a over the DTO's record string, which lists every field, finished with the SplitMix64 mixer.
+    static long hash(Object body) {
+        String value = String.valueOf(body);
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+}
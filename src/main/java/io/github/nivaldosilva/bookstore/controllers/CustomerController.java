@@ -9,12 +9,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,8 +24,8 @@ import java.util.UUID;
 @Tag(name = "Clientes", description = "Operações relacionadas ao gerenciamento de clientes")
 public class CustomerController {
 
-    private static final Logger logger = LoggerFactory.getLogger(CustomerController.class);
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Registrar um novo cliente", description = "Registra um novo cliente no sistema.")
     @ApiResponse(responseCode = "201", description = "Cliente registrado com sucesso.")
@@ -34,9 +34,7 @@ public class CustomerController {
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<CustomerResponse> registerCustomer(
             @Parameter(description = "Dados do cliente a ser registrado", required = true) @Valid @RequestBody CustomerRequest customerRequest) {
-        logger.info("Starting customer registration for email: {}", customerRequest.email());
         CustomerResponse registeredCustomer = customerService.registerCustomer(customerRequest);
-        logger.info("Customer registered successfully.");
         return ResponseEntity.status(HttpStatus.CREATED).body(registeredCustomer);
     }
 
@@ -46,9 +44,7 @@ public class CustomerController {
     @GetMapping("/{id}")
     public ResponseEntity<CustomerResponse> getCustomerById(
             @Parameter(description = "ID único do cliente", required = true) @PathVariable("id") UUID id) {
-        logger.info("Starting customer search by ID: {}", id);
         CustomerResponse customerResponse = customerService.findCustomerById(id);
-        logger.info("Customer found successfully.");
         return ResponseEntity.ok(customerResponse);
     }
 
@@ -56,12 +52,17 @@ public class CustomerController {
     @ApiResponse(responseCode = "200", description = "Lista de clientes recuperada com sucesso.")
     @GetMapping
     public ResponseEntity<List<CustomerResponse>> getAllCustomers() {
-        logger.info("Starting search for all customers.");
         List<CustomerResponse> customers = customerService.findAllCustomers();
-        logger.info("Search for all customers completed.");
         return ResponseEntity.ok(customers);
     }
 
+    @Operation(summary = "Exportar clientes", description = "Exporta todos os clientes em NDJSON (um JSON por linha), em streaming. O histórico de pedidos não é incluído; use a exportação de pedidos.")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso.")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        return NdjsonResponses.<CustomerResponse>stream(objectMapper, "customers.ndjson", customerService::exportCustomers);
+    }
+
     @Operation(summary = "Atualizar cliente", description = "Atualiza os dados de um cliente existente. A senha pode ser atualizada se fornecida na requisição.")
     @ApiResponse(responseCode = "200", description = "Cliente atualizado com sucesso.")
     @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos.")
@@ -71,9 +72,7 @@ public class CustomerController {
     public ResponseEntity<CustomerResponse> updateCustomer(
             @Parameter(description = "ID único do cliente", required = true) @PathVariable("id") UUID id,
             @Parameter(description = "Dados atualizados do cliente", required = true) @Valid @RequestBody CustomerRequest customerRequest) {
-        logger.info("Starting customer update for ID: {}", id);
         CustomerResponse updatedCustomer = customerService.updateCustomer(id, customerRequest);
-        logger.info("Customer updated successfully.");
         return ResponseEntity.ok(updatedCustomer);
     }
 
@@ -83,9 +82,7 @@ public class CustomerController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCustomer(
             @Parameter(description = "ID único do cliente", required = true) @PathVariable("id") UUID id) {
-        logger.info("Starting customer deletion by ID: {}", id);
         customerService.deleteCustomer(id);
-        logger.info("Customer successfully deleted.");
         return ResponseEntity.noContent().build();
     }
 
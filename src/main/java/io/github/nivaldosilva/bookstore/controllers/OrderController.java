@@ -1,22 +1,29 @@
 package io.github.nivaldosilva.bookstore.controllers;
 
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.OrderRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
 import io.github.nivaldosilva.bookstore.enums.OrderStatus;
 import io.github.nivaldosilva.bookstore.services.interfaces.OrderService;
+import io.github.nivaldosilva.bookstore.services.usecases.IdempotentRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -25,20 +32,32 @@ import java.util.UUID;
 @Tag(name = "Pedidos", description = "Operações relacionadas ao gerenciamento de pedidos de livros")
 public class OrderController {
 
-    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final IdempotentRequests idempotentRequests;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Criar um novo pedido", description = "Cria um novo pedido no sistema.")
-    @ApiResponse(responseCode = "201", description = "Pedido criado com sucesso.")
+    @Operation(summary = "Criar um novo pedido", description = "Cria um novo pedido no sistema. Com o cabeçalho Idempotency-Key, "
+            + "repetições da mesma requisição devolvem o pedido já criado em vez de criar outro.")
+    @ApiResponse(responseCode = "201", description = "Pedido criado com sucesso (ou devolvido novamente, com Idempotent-Replayed: true).")
     @ApiResponse(responseCode = "400", description = "Dados inválidos ou estoque insuficiente.")
     @ApiResponse(responseCode = "404", description = "Cliente ou livro(s) não encontrado(s).")
+    @ApiResponse(responseCode = "409", description = "Requisição com a mesma chave de idempotência ainda em processamento.")
+    @ApiResponse(responseCode = "422", description = "Chave de idempotência já usada com outra requisição.")
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<OrderResponse> createOrder(
+            @Parameter(description = "Chave única por tentativa de compra, repetida pelo cliente ao reenviar") @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Parameter(description = "Dados do pedido a ser criado", required = true) @Valid @RequestBody OrderRequest orderRequest) {
-        logger.info("Starting order creation for customer email: {}", orderRequest.customerEmail());
-        OrderResponse createdOrder = orderService.createOrder(orderRequest);
-        logger.info("Order created successfully.");
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(orderRequest));
+        }
+        IdempotentRequests.Result<OrderResponse> result = idempotentRequests.execute(idempotencyKey, orderRequest,
+                OrderResponse.class, () -> orderService.createOrder(orderRequest));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.value());
     }
 
     @Operation(summary = "Buscar pedido por ID", description = "Recupera os detalhes de um pedido específico pelo seu ID.")
@@ -47,33 +66,66 @@ public class OrderController {
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrderById(
             @Parameter(description = "ID único do pedido", required = true) @PathVariable UUID id) {
-        logger.info("Starting order search by ID: {}", id);
         OrderResponse orderResponse = orderService.findOrderById(id);
-        logger.info("Request found successfully.");
         return ResponseEntity.ok(orderResponse);
     }
 
-    @Operation(summary = "Listar todos os pedidos", description = "Retorna uma lista de todos os pedidos registrados.")
+    @Operation(summary = "Listar pedidos", description = "Retorna uma lista paginada de pedidos com filtros por status, cliente e período de criação.")
     @ApiResponse(responseCode = "200", description = "Lista de pedidos recuperada com sucesso.")
+    @ApiResponse(responseCode = "400", description = "Parâmetros de paginação ou filtros inválidos.")
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        logger.info("Starting search for all orders.");
-        List<OrderResponse> orders = orderService.findAllOrders();
-        logger.info("Search for all orders completed.");
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<PagedResponse<OrderResponse>> getAllOrders(
+            @Parameter(description = "Número da página (0-indexed)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenação", example = "createdAt") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Direção da ordenação (ASC/DESC)", example = "DESC") @RequestParam(defaultValue = "DESC") String sortDirection,
+            @Parameter(description = "Status para filtrar", example = "PENDING") @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "ID do cliente para filtrar") @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "Criados a partir de (inclusivo, ISO-8601)", example = "2025-01-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Criados antes de (exclusivo, ISO-8601)", example = "2025-02-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        Pageable pageable = PageRequest.of(page, size, Sort.Direction.fromString(sortDirection), sortBy);
+        PagedResponse<OrderResponse> response = orderService.findAllOrders(pageable, status, customerId, createdFrom, createdTo);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Percorrer pedidos por cursor", description = "Retorna pedidos paginados por cursor (keyset) ordenados pela data de criação, sem contagem de totais.")
+    @ApiResponse(responseCode = "200", description = "Página de pedidos recuperada com sucesso.")
+    @ApiResponse(responseCode = "400", description = "Cursor, paginação ou filtros inválidos.")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPagedResponse<OrderResponse>> scrollOrders(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio para a primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Direção da ordenação por data de criação (ASC/DESC)", example = "DESC") @RequestParam(defaultValue = "DESC") String sortDirection,
+            @Parameter(description = "Status para filtrar", example = "PENDING") @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "ID do cliente para filtrar") @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "Criados a partir de (inclusivo, ISO-8601)", example = "2025-01-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Criados antes de (exclusivo, ISO-8601)", example = "2025-02-01T00:00:00") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        CursorPagedResponse<OrderResponse> response = orderService.scrollOrders(cursor, size,
+                Sort.Direction.fromString(sortDirection), status, customerId, createdFrom, createdTo);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Exportar pedidos", description = "Exporta todo o histórico de pedidos em NDJSON (um JSON por linha), em streaming, ordenado pela data de criação.")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso.")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        return NdjsonResponses.<OrderResponse>stream(objectMapper, "orders.ndjson", orderService::exportOrders);
     }
 
-    @Operation(summary = "Atualizar status do pedido", description = "Atualiza o status de um pedido existente.")
+    @Operation(summary = "Atualizar status do pedido", description = "Atualiza o status de um pedido existente. "
+            + "Pedidos seguem PENDING -> PROCESSING -> SHIPPED -> DELIVERED; podem ser cancelados até o envio e "
+            + "devolvidos depois dele, e o estoque de pedidos cancelados ou devolvidos é reposto em segundo plano.")
     @ApiResponse(responseCode = "200", description = "Status do pedido atualizado com sucesso.")
     @ApiResponse(responseCode = "400", description = "Status inválido ou dados fornecidos.")
     @ApiResponse(responseCode = "404", description = "Pedido não encontrado.")
+    @ApiResponse(responseCode = "409", description = "Transição de status não permitida.")
     @PatchMapping("/{id}/status")
     public ResponseEntity<OrderResponse> updateOrderStatus(
             @Parameter(description = "ID único do pedido", required = true) @PathVariable UUID id,
             @Parameter(description = "Novo status do pedido", required = true, example = "SHIPPED") @RequestParam OrderStatus status) {
-        logger.info("Starting order status update for order {} to: {}", id, status);
         OrderResponse updatedOrder = orderService.updateOrderStatus(id, status);
-        logger.info("Order status updated successfully.");
         return ResponseEntity.ok(updatedOrder);
     }
 
@@ -83,9 +135,7 @@ public class OrderController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(
             @Parameter(description = "ID único do pedido", required = true) @PathVariable UUID id) {
-        logger.info("Starting order deletion by ID: {}", id);
         orderService.deleteOrder(id);
-        logger.info("Order deleted successfully.");
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,22 @@
+package io.github.nivaldosilva.bookstore.dtos.common;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resposta paginada por cursor, sem totais")
+public record CursorPagedResponse <T>(
+
+    @Schema(description = "Conteúdo da página atual")
+    List<T> content,
+
+    @Schema(description = "Tamanho da página")
+    int pageSize,
+
+    @Schema(description = "Cursor opaco para buscar a próxima página; ausente na última página")
+    String nextCursor,
+
+    @Schema(description = "Indica se é a última página")
+    boolean last
+) {}
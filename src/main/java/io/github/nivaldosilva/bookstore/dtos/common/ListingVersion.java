@@ -0,0 +1,10 @@
+package io.github.nivaldosilva.bookstore.dtos.common;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a listing's content depends on, read with one aggregate query: the latest update among the
+ * rows its filter selects and how many there are. Any write to those rows moves one of them.
+ */
+public record ListingVersion(LocalDateTime lastUpdatedAt, long count) {
+}
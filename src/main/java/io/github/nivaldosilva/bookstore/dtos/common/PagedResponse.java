@@ -17,11 +17,11 @@ public record PagedResponse <T>(
     @Schema(description = "Tamanho da página")
     int pageSize,
 
-    @Schema(description = "Número total de elementos em todas as páginas")
-    long totalElements,
+    @Schema(description = "Número total de elementos em todas as páginas (ausente quando count=none)")
+    Long totalElements,
 
-    @Schema(description = "Número total de páginas")
-    int totalPages,
+    @Schema(description = "Número total de páginas (ausente quando count=none)")
+    Integer totalPages,
 
     @Schema(description = "Indica se é a primeira página")
     boolean first,
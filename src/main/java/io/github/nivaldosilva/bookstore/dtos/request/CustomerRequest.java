@@ -28,5 +28,8 @@ public record CustomerRequest(
     String email,
 
     @Schema(description = "Senha do cliente (obrigatória na criação, opcional na atualização)")
-    String password
+    String password,
+
+    @Schema(description = "Na atualização, indica que a senha enviada é a atual e não deve ser trocada")
+    Boolean passwordUnchanged
 ) {} 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package io.github.nivaldosilva.bookstore.dtos.response;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado da importação em lote de livros")
+public record BookImportResponse(
+
+    @Schema(description = "Quantidade de linhas lidas do arquivo")
+    long received,
+
+    @Schema(description = "Quantidade de livros cadastrados")
+    long imported,
+
+    @Schema(description = "Quantidade de linhas rejeitadas")
+    long rejected,
+
+    @Schema(description = "Erros por linha (limitados às primeiras ocorrências)")
+    List<RowError> errors,
+
+    @Schema(description = "Motivo pelo qual a leitura parou antes do fim do arquivo; as linhas anteriores foram processadas e as seguintes não foram lidas")
+    String error
+) {
+
+    @Schema(description = "Erro de uma linha do arquivo de importação")
+    public record RowError(
+
+        @Schema(description = "Número da linha de dados (a partir de 1, sem contar o cabeçalho)")
+        long row,
+
+        @Schema(description = "ISBN informado na linha, quando disponível")
+        String isbn,
+
+        @Schema(description = "Motivo da rejeição")
+        String message
+    ) {}
+}
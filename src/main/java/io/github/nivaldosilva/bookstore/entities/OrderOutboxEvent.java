@@ -0,0 +1,55 @@
+package io.github.nivaldosilva.bookstore.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+import io.github.nivaldosilva.bookstore.enums.OrderEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order follow-up work, written in the same transaction as the order change that caused it and
+ * deleted by the dispatcher once handled. Ids are UUIDv7, so id order is creation order. The order
+ * id is kept without a foreign key so deleting an order never blocks on pending events.
+ * {@code attempts} counts the times the event failed on its own; past the configured maximum it is
+ * kept for inspection and skipped.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class OrderOutboxEvent {
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private OrderEventType type;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+}
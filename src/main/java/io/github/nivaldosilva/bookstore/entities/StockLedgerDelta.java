@@ -0,0 +1,46 @@
+package io.github.nivaldosilva.bookstore.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A stock change decided by the stock ledger and not yet folded into {@code books.stock_quantity}.
+ * It is written in the transaction of the order that caused it, so it is durable exactly when the
+ * order is, and deleted by the flush that applies it, in the same transaction.
+ */
+@Entity
+@Table(name = "stock_ledger_deltas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class StockLedgerDelta {
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "book_id", nullable = false)
+    private UUID bookId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,50 @@
+package io.github.nivaldosilva.bookstore.entities;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp, a 12-bit
+ * counter and 62 random bits. Ids from one JVM are strictly increasing, so primary key inserts land
+ * at the right edge of the clustered index instead of splitting pages at random positions.
+ *
+ * <p>The timestamp and counter are advanced together with a single CAS. When more than 4096 ids
+ * are requested within a millisecond, or the clock steps back, the counter carries into the
+ * timestamp and ids keep increasing slightly ahead of the wall clock.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_9562 = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        long earliest = epochMillis << COUNTER_BITS;
+        long stamp = LAST_STAMP.updateAndGet(last -> Math.max(last + 1, earliest));
+        long mostSignificantBits = ((stamp >>> COUNTER_BITS) << 16) | VERSION_7 | (stamp & COUNTER_MASK);
+        long leastSignificantBits = (RANDOM.nextLong() & RANDOM_MASK) | VARIANT_RFC_9562;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+}
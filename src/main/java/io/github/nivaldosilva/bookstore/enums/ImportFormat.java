@@ -0,0 +1,8 @@
+package io.github.nivaldosilva.bookstore.enums;
+
+public enum ImportFormat {
+
+    CSV,
+    NDJSON
+
+}
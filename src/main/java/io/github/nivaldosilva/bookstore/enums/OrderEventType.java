@@ -0,0 +1,9 @@
+package io.github.nivaldosilva.bookstore.enums;
+
+public enum OrderEventType {
+
+    PLACED,
+    CANCELLED,
+    RETURNED
+
+}
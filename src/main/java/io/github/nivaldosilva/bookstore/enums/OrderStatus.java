@@ -2,6 +2,10 @@ package io.github.nivaldosilva.bookstore.enums;
 
 import lombok.Getter;
 
+/**
+ * Lifecycle of an order: {@code PENDING -> PROCESSING -> SHIPPED -> DELIVERED}. An order can be
+ * cancelled until it ships and returned once it has shipped; both end states give the stock back.
+ */
 @Getter
 public enum OrderStatus {
 
@@ -10,6 +14,20 @@ public enum OrderStatus {
     SHIPPED,
     DELIVERED,
     CANCELLED,
-    RETURNED
+    RETURNED;
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case PENDING -> next == PROCESSING || next == CANCELLED;
+            case PROCESSING -> next == SHIPPED || next == CANCELLED;
+            case SHIPPED -> next == DELIVERED || next == RETURNED;
+            case DELIVERED -> next == RETURNED;
+            case CANCELLED, RETURNED -> false;
+        };
+    }
+
+    public boolean returnsStock() {
+        return this == CANCELLED || this == RETURNED;
+    }
 
 }
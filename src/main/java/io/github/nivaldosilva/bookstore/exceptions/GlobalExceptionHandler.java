@@ -3,6 +3,7 @@ package io.github.nivaldosilva.bookstore.exceptions;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -33,7 +34,10 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({
             AuthorNameAlreadyExistsException.class,
             EmailAlreadyExistsException.class,
-            IsbnAlreadyExistsException.class
+            IsbnAlreadyExistsException.class,
+            InvalidOrderStatusTransitionException.class,
+            IdempotentRequestInProgressException.class,
+            StockLedgerDisabledException.class
     })
     public ResponseEntity<ErrorResponse> handleConflictExceptions(RuntimeException ex) {
         logger.warn("Conflict error: {}", ex.getMessage());
@@ -57,6 +61,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        logger.warn("Idempotency key reused: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(new ErrorResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException ex) {
+        logger.warn("Password hashing saturated: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         logger.warn("Illegal argument error: {}", ex.getMessage());
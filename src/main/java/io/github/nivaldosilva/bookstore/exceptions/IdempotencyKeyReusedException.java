@@ -0,0 +1,11 @@
+package io.github.nivaldosilva.bookstore.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("A chave de idempotência já foi usada com uma requisição diferente.");
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.nivaldosilva.bookstore.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException() {
+        super("Uma requisição com esta chave de idempotência ainda está em processamento. Tente novamente em instantes.");
+    }
+}
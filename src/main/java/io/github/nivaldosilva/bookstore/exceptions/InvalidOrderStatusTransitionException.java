@@ -0,0 +1,12 @@
+package io.github.nivaldosilva.bookstore.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import io.github.nivaldosilva.bookstore.enums.OrderStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+    public InvalidOrderStatusTransitionException(OrderStatus currentStatus, OrderStatus newStatus) {
+        super("Não é possível alterar o status do pedido de " + currentStatus + " para " + newStatus + ".");
+    }
+}
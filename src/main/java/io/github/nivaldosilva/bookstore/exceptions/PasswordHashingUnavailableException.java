@@ -0,0 +1,11 @@
+package io.github.nivaldosilva.bookstore.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException() {
+        super("Muitos cadastros em andamento. Tente novamente em instantes.");
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.nivaldosilva.bookstore.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StockLedgerDisabledException extends RuntimeException {
+    public StockLedgerDisabledException() {
+        super("O ledger de estoque está desativado. Ele só pode ser usado com uma única instância da aplicação.");
+    }
+}
@@ -4,6 +4,7 @@ import io.github.nivaldosilva.bookstore.dtos.request.BookRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
 import io.github.nivaldosilva.bookstore.entities.Author;
 import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.repositories.BookSummaryRepository.BookSummary;
 
 public class BookMapper {
 
@@ -40,4 +41,20 @@ public class BookMapper {
                 .build();
     }
 
+    public static BookResponse toResponse(BookSummary summary) {
+        return BookResponse.builder()
+                .id(summary.id())
+                .isbn(summary.isbn())
+                .title(summary.title())
+                .genre(summary.genre())
+                .publicationDate(summary.publicationDate())
+                .price(summary.price())
+                .stockQuantity(summary.stockQuantity())
+                .authorId(summary.authorId())
+                .authorName(summary.authorName())
+                .createdAt(summary.createdAt())
+                .updatedAt(summary.updatedAt())
+                .build();
+    }
+
 }
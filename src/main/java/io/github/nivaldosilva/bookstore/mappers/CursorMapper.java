@@ -0,0 +1,67 @@
+package io.github.nivaldosilva.bookstore.mappers;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.util.ReflectionUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class CursorMapper {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final String INVALID_CURSOR = "Cursor inválido.";
+
+    public static String toCursor(KeysetScrollPosition position) {
+        try {
+            byte[] json = OBJECT_MAPPER.writeValueAsBytes(position.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to encode cursor", ex);
+        }
+    }
+
+    public static KeysetScrollPosition toPosition(String cursor, Class<?> entityType, Set<String> expectedKeys) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> rawKeys;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            rawKeys = OBJECT_MAPPER.readValue(new String(json, StandardCharsets.UTF_8), new TypeReference<>() {
+            });
+        } catch (IllegalArgumentException | JsonProcessingException ex) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+        if (rawKeys == null || !rawKeys.keySet().equals(expectedKeys)) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : rawKeys.entrySet()) {
+            Field field = ReflectionUtils.findField(entityType, entry.getKey());
+            if (field == null) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            try {
+                keys.put(entry.getKey(), OBJECT_MAPPER.convertValue(entry.getValue(), field.getType()));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+}
@@ -38,4 +38,14 @@ public class CustomerMapper {
                                 .build();
         }
 
+        public static CustomerResponse toSummaryResponse(Customer customer) {
+                return CustomerResponse.builder()
+                                .id(customer.getId())
+                                .fullName(customer.getFullName())
+                                .email(customer.getEmail())
+                                .createdAt(customer.getCreatedAt())
+                                .updatedAt(customer.getUpdatedAt())
+                                .build();
+        }
+
 }
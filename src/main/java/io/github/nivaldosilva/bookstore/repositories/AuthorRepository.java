@@ -1,11 +1,38 @@
 package io.github.nivaldosilva.bookstore.repositories;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
 import io.github.nivaldosilva.bookstore.entities.Author;
 
 public interface AuthorRepository extends JpaRepository<Author, UUID> {
 
     boolean existsByName(String name);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT a.name FROM Author a")
+    Stream<String> streamAllNames();
+
+    @Query("SELECT new io.github.nivaldosilva.bookstore.dtos.common.ListingVersion(MAX(a.updatedAt), COUNT(a)) FROM Author a")
+    ListingVersion findListingVersion();
+
+    @Query("SELECT a.id FROM Author a WHERE a.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT a FROM Author a")
+    Stream<Author> streamAll();
+
 }
@@ -1,19 +1,80 @@
 package io.github.nivaldosilva.bookstore.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import io.github.nivaldosilva.bookstore.entities.Book;
 
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, JpaSpecificationExecutor<Book>, BookSummaryRepository,
+        BookStockRepository {
 
     Optional<Book> findByIsbn(String isbn);
 
+    @EntityGraph(attributePaths = "author")
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
     boolean existsByIsbn(String isbn);
 
-    Page<Book> findAll(Specification<Book> spec, Pageable pageable);
+    @Query("SELECT b.id FROM Book b WHERE b.isbn = :isbn")
+    Optional<UUID> findIdByIsbn(@Param("isbn") String isbn);
+
+    @Query("SELECT b.id FROM Book b WHERE b.author.id = :authorId")
+    List<UUID> findIdsByAuthorId(@Param("authorId") UUID authorId);
+
+    // Holds off conditional stock UPDATEs while the stock ledger is seeded from this row.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT b.isbn FROM Book b")
+    Stream<String> streamAllIsbns();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT b FROM Book b JOIN FETCH b.author")
+    Stream<Book> streamAllWithAuthor();
+
+    // Each book is mapped with its author's name, so the author is fetched in the window's query.
+    default Window<Book> scroll(Specification<Book> spec, KeysetScrollPosition position, Sort sort, int limit) {
+        Specification<Book> withAuthor = spec.and((root, query, cb) -> {
+            root.fetch("author");
+            return null;
+        });
+        return findBy(withAuthor, query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity + :delta, b.updatedAt = LOCAL DATETIME WHERE b.id = :id")
+    int adjustStock(@Param("id") UUID id, @Param("delta") int delta);
+
+    // Books show their author's name, so a rename is a change to each of them as well.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Book b SET b.updatedAt = LOCAL DATETIME WHERE b.author.id = :authorId")
+    int touchByAuthor(@Param("authorId") UUID authorId);
 
 }
@@ -0,0 +1,15 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface BookStockRepository {
+
+    /**
+     * Takes the given quantity from each book whose stock covers it and returns the ids of the
+     * books that did not have enough; their rows are left as they were.
+     */
+    Set<UUID> decrementStock(Map<UUID, Integer> quantitiesByBook);
+
+}
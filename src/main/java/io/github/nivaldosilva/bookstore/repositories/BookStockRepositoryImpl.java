@@ -0,0 +1,54 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import java.sql.PreparedStatement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.type.BasicType;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+// The conditional UPDATE goes out as one JDBC batch, a single round trip with
+// rewriteBatchedStatements, and each statement's update count tells which book fell short.
+@RequiredArgsConstructor
+class BookStockRepositoryImpl implements BookStockRepository {
+
+    private static final String DECREMENT_STOCK = "UPDATE books SET stock_quantity = stock_quantity - ?, "
+            + "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock_quantity >= ?";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Set<UUID> decrementStock(Map<UUID, Integer> quantitiesByBook) {
+        if (quantitiesByBook.isEmpty()) {
+            return Set.of();
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        // Binds ids the way the dialect maps UUID columns: BINARY(16) on MySQL, native UUID on H2.
+        BasicType<UUID> uuidType = session.getFactory().getTypeConfiguration().getBasicTypeForJavaType(UUID.class);
+        List<Map.Entry<UUID, Integer>> lines = List.copyOf(quantitiesByBook.entrySet());
+        int[] updated = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DECREMENT_STOCK)) {
+                for (Map.Entry<UUID, Integer> line : lines) {
+                    statement.setInt(1, line.getValue());
+                    uuidType.nullSafeSet(statement, line.getKey(), 2, session);
+                    statement.setInt(3, line.getValue());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+        Set<UUID> insufficient = new LinkedHashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (updated[i] == 0) {
+                insufficient.add(lines.get(i).getKey());
+            }
+        }
+        return insufficient;
+    }
+
+}
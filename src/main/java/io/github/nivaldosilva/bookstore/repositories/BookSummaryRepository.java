@@ -0,0 +1,34 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+
+public interface BookSummaryRepository {
+
+    record BookSummary(
+            UUID id,
+            String isbn,
+            String title,
+            Genre genre,
+            LocalDate publicationDate,
+            BigDecimal price,
+            Integer stockQuantity,
+            UUID authorId,
+            String authorName,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+    }
+
+    Slice<BookSummary> findSummaries(Specification<Book> spec, Pageable pageable);
+
+    ListingVersion findListingVersion(Specification<Book> spec);
+
+}
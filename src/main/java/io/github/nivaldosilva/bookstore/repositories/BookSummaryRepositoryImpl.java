@@ -0,0 +1,82 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+// Selects only the listing columns through a constructor expression: no synopsis, one inner join
+// to authors, and no managed entities for the persistence context to track or dirty-check.
+@RequiredArgsConstructor
+class BookSummaryRepositoryImpl implements BookSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<BookSummary> findSummaries(Specification<Book> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookSummary> query = cb.createQuery(BookSummary.class);
+        Root<Book> book = query.from(Book.class);
+        Join<Book, Author> author = book.join("author");
+
+        query.select(cb.construct(BookSummary.class,
+                book.get("id"),
+                book.get("isbn"),
+                book.get("title"),
+                book.get("genre"),
+                book.get("publicationDate"),
+                book.get("price"),
+                book.get("stockQuantity"),
+                author.get("id"),
+                author.get("name"),
+                book.get("createdAt"),
+                book.get("updatedAt")));
+        if (spec != null) {
+            query.where(spec.toPredicate(book, query, cb));
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+        }
+
+        TypedQuery<BookSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        // One extra row tells whether another slice exists without issuing a count query.
+        List<BookSummary> rows = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public ListingVersion findListingVersion(Specification<Book> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ListingVersion> query = cb.createQuery(ListingVersion.class);
+        Root<Book> book = query.from(Book.class);
+
+        query.select(cb.construct(ListingVersion.class,
+                cb.greatest(book.<LocalDateTime>get("updatedAt")),
+                cb.count(book)));
+        if (spec != null) {
+            query.where(spec.toPredicate(book, query, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+}
@@ -1,9 +1,23 @@
 package io.github.nivaldosilva.bookstore.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import io.github.nivaldosilva.bookstore.entities.OrderItem;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
 
+    interface BookQuantity {
+        UUID getBookId();
+
+        long getQuantity();
+    }
+
+    @Query("SELECT i.book.id AS bookId, SUM(i.quantity) AS quantity FROM OrderItem i "
+            + "WHERE i.order.id IN :orderIds GROUP BY i.book.id")
+    List<BookQuantity> sumQuantitiesByBook(@Param("orderIds") Collection<UUID> orderIds);
+
 }
@@ -0,0 +1,34 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import io.github.nivaldosilva.bookstore.entities.OrderOutboxEvent;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, UUID> {
+
+    // A lock timeout of -2 is Hibernate's SKIP LOCKED, so dispatchers on several instances take
+    // disjoint batches; dialects without SKIP LOCKED fall back to a plain FOR UPDATE.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.attempts < :maxAttempts ORDER BY e.id")
+    List<OrderOutboxEvent> lockNextBatch(@Param("maxAttempts") int maxAttempts, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.id = :id")
+    Optional<OrderOutboxEvent> lockById(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.orderId = :orderId")
+    List<OrderOutboxEvent> lockByOrderId(@Param("orderId") UUID orderId);
+
+}
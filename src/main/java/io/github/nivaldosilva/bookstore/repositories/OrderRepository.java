@@ -1,9 +1,66 @@
 package io.github.nivaldosilva.bookstore.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
 import io.github.nivaldosilva.bookstore.entities.Order;
+import io.github.nivaldosilva.bookstore.enums.OrderStatus;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
+
+    interface OrderId {
+        UUID getId();
+    }
+
+    interface OrderKey {
+        UUID getId();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    @EntityGraph(attributePaths = { "customer", "items", "items.book", "items.book.author" })
+    Optional<Order> findWithDetailsById(UUID id);
+
+    @EntityGraph(attributePaths = { "customer", "items", "items.book", "items.book.author" })
+    List<Order> findWithDetailsByIdIn(Collection<UUID> ids);
+
+    // Locks only the orders row; the fetch-joined lookups above would lock the items and books too.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT DISTINCT o.customer.id FROM Order o WHERE o.id IN :ids")
+    Set<UUID> findCustomerIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = LOCAL DATETIME WHERE o.id IN :ids AND o.status = :from")
+    int transitionStatus(@Param("ids") Collection<UUID> ids, @Param("from") OrderStatus from,
+            @Param("to") OrderStatus to);
+
+    // Listings page over ids only; paging a collection fetch would make Hibernate paginate in memory.
+    default Page<UUID> findIds(Specification<Order> spec, Pageable pageable) {
+        return findBy(spec, q -> q.as(OrderId.class).page(pageable)).map(OrderId::getId);
+    }
+
+    default Window<OrderKey> scrollKeys(Specification<Order> spec, KeysetScrollPosition position, Sort sort, int limit) {
+        return findBy(spec, q -> q.as(OrderKey.class).sortBy(sort).limit(limit).scroll(position));
+    }
 
 }
@@ -0,0 +1,9 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import io.github.nivaldosilva.bookstore.entities.StockLedgerBook;
+
+public interface StockLedgerBookRepository extends JpaRepository<StockLedgerBook, UUID> {
+
+}
@@ -0,0 +1,28 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import io.github.nivaldosilva.bookstore.entities.StockLedgerDelta;
+
+public interface StockLedgerDeltaRepository extends JpaRepository<StockLedgerDelta, UUID> {
+
+    // SKIP LOCKED, as for the outbox: a flush started by untrack and the scheduled one never apply
+    // the same delta. Deltas of orders still open are not visible yet and are left for a later flush.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT d FROM StockLedgerDelta d ORDER BY d.id")
+    List<StockLedgerDelta> lockNextBatch(Limit limit);
+
+    @Query("SELECT COALESCE(SUM(d.delta), 0) FROM StockLedgerDelta d WHERE d.bookId = :bookId")
+    long sumByBookId(@Param("bookId") UUID bookId);
+
+}
@@ -2,6 +2,8 @@ package io.github.nivaldosilva.bookstore.services.interfaces;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
 import io.github.nivaldosilva.bookstore.dtos.request.AuthorRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.AuthorResponse;
 
@@ -13,6 +15,10 @@ public interface AuthorService {
 
     List<AuthorResponse> findAllAuthors();
 
+    ListingVersion findListingVersion();
+
+    void exportAuthors(Consumer<AuthorResponse> consumer);
+
     AuthorResponse updateAuthor(UUID id, AuthorRequest request);
 
     void deleteAuthor(UUID id);
@@ -0,0 +1,11 @@
+package io.github.nivaldosilva.bookstore.services.interfaces;
+
+import java.io.InputStream;
+import io.github.nivaldosilva.bookstore.dtos.response.BookImportResponse;
+import io.github.nivaldosilva.bookstore.enums.ImportFormat;
+
+public interface BookImportService {
+
+    BookImportResponse importBooks(InputStream input, ImportFormat format);
+
+}
@@ -1,10 +1,15 @@
 package io.github.nivaldosilva.bookstore.services.interfaces;
 
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
 import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.BookRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
+import io.github.nivaldosilva.bookstore.enums.CountMode;
 import io.github.nivaldosilva.bookstore.enums.Genre;
 
 public interface BookService {
@@ -13,10 +18,33 @@ public interface BookService {
 
     BookResponse findBookById(UUID id);
 
-    PagedResponse<BookResponse> findAllBooks(Pageable pageable, Genre genre, UUID authorId);
+    BookResponse findBookByIsbn(String isbn);
+
+    PagedResponse<BookResponse> findAllBooks(Pageable pageable, Genre genre, UUID authorId, CountMode countMode);
+
+    /**
+     * Same as {@link #findAllBooks(Pageable, Genre, UUID, CountMode)}, with an exact total taken from
+     * {@code version} when one was just read by {@link #findListingVersion(Genre, UUID, CountMode)}.
+     */
+    PagedResponse<BookResponse> findAllBooks(Pageable pageable, Genre genre, UUID authorId, CountMode countMode,
+            ListingVersion version);
+
+    /**
+     * The version the listing tag is built from: read fresh for {@link CountMode#EXACT}, cached for
+     * {@link CountMode#ESTIMATE}, and only if already cached for {@link CountMode#NONE}, else null.
+     */
+    ListingVersion findListingVersion(Genre genre, UUID authorId, CountMode countMode);
+
+    CursorPagedResponse<BookResponse> scrollBooks(String cursor, int size, Sort sort, Genre genre, UUID authorId);
+
+    void exportBooks(Consumer<BookResponse> consumer);
 
     BookResponse updateBook(UUID id, BookRequest request);
 
     void deleteBook(UUID id);
 
+    void enableStockLedger(UUID id);
+
+    void disableStockLedger(UUID id);
+
 }
@@ -2,6 +2,7 @@ package io.github.nivaldosilva.bookstore.services.interfaces;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import io.github.nivaldosilva.bookstore.dtos.request.CustomerRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.CustomerResponse;
 
@@ -13,6 +14,8 @@ public interface CustomerService {
 
     List<CustomerResponse> findAllCustomers();
 
+    void exportCustomers(Consumer<CustomerResponse> consumer);
+
     CustomerResponse updateCustomer(UUID id, CustomerRequest request);
 
     void deleteCustomer(UUID id);
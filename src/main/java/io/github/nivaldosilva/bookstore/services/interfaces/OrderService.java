@@ -1,7 +1,12 @@
 package io.github.nivaldosilva.bookstore.services.interfaces;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.OrderRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
 import io.github.nivaldosilva.bookstore.enums.OrderStatus;
@@ -12,7 +17,13 @@ public interface OrderService {
 
     OrderResponse findOrderById(UUID id);
 
-    List<OrderResponse> findAllOrders();
+    PagedResponse<OrderResponse> findAllOrders(Pageable pageable, OrderStatus status, UUID customerId,
+            LocalDateTime createdFrom, LocalDateTime createdTo);
+
+    CursorPagedResponse<OrderResponse> scrollOrders(String cursor, int size, Sort.Direction direction,
+            OrderStatus status, UUID customerId, LocalDateTime createdFrom, LocalDateTime createdTo);
+
+    void exportOrders(Consumer<OrderResponse> consumer);
 
     OrderResponse updateOrderStatus(UUID id, OrderStatus newStatus);
 
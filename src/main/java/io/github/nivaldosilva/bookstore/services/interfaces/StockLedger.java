@@ -0,0 +1,21 @@
+package io.github.nivaldosilva.bookstore.services.interfaces;
+
+import java.util.UUID;
+
+public interface StockLedger {
+
+    boolean isEnabled();
+
+    void track(UUID bookId, int stockQuantity);
+
+    void untrack(UUID bookId);
+
+    boolean isTracked(UUID bookId);
+
+    boolean tryReserve(UUID bookId, int quantity);
+
+    void release(UUID bookId, int quantity);
+
+    void flush();
+
+}
@@ -2,9 +2,18 @@ package io.github.nivaldosilva.bookstore.services.usecases;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.annotation.Timed;
+import io.github.nivaldosilva.bookstore.config.CacheConfig;
+import io.github.nivaldosilva.bookstore.config.MetricsConfig;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
 import io.github.nivaldosilva.bookstore.dtos.request.AuthorRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.AuthorResponse;
 import io.github.nivaldosilva.bookstore.entities.Author;
@@ -12,29 +21,39 @@ import io.github.nivaldosilva.bookstore.exceptions.AuthorNameAlreadyExistsExcept
 import io.github.nivaldosilva.bookstore.exceptions.AuthorNotFoundException;
 import io.github.nivaldosilva.bookstore.mappers.AuthorMapper;
 import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
 import io.github.nivaldosilva.bookstore.services.interfaces.AuthorService;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final UniquenessFilters uniquenessFilters;
+    private final StockLedger stockLedger;
+    private final BookCache bookCache;
+    private final BookCountCache bookCountCache;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public AuthorResponse createAuthor(AuthorRequest request) {
-        if (authorRepository.existsByName(request.name())) {
+        if (uniquenessFilters.exists(UniquenessFilters.Key.AUTHOR_NAME, request.name(), authorRepository::existsByName)) {
             throw new AuthorNameAlreadyExistsException();
         }
         
         Author author = AuthorMapper.toEntity(request);
-        Author savedAuthor = authorRepository.save(author);
-        return AuthorMapper.toResponse(savedAuthor);
+        return AuthorMapper.toResponse(saveUnique(author));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.AUTHORS, key = "#id")
     public AuthorResponse findAuthorById(UUID id) {
         Author author = authorRepository.findById(id)
                 .orElseThrow(AuthorNotFoundException::new);
@@ -50,13 +69,31 @@ public class AuthorServiceImpl implements AuthorService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ListingVersion findListingVersion() {
+        return authorRepository.findListingVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAuthors(Consumer<AuthorResponse> consumer) {
+        ExportStreams.forEach(authorRepository.streamAll(), entityManager, AuthorMapper::toResponse, consumer);
+    }
+
     @Override
     @Transactional
+    // Cached books carry the author name, and deleting an author cascades to its books.
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS, key = "#id"),
+            @CacheEvict(cacheNames = BookCache.BOOKS, allEntries = true) })
     public AuthorResponse updateAuthor(UUID id, AuthorRequest request) {
         Author existingAuthor = authorRepository.findById(id)
                 .orElseThrow(AuthorNotFoundException::new);
 
-        if (!existingAuthor.getName().equals(request.name()) && authorRepository.existsByName(request.name())) {
+        boolean renamed = !existingAuthor.getName().equals(request.name());
+        if (renamed
+                && uniquenessFilters.exists(UniquenessFilters.Key.AUTHOR_NAME, request.name(), authorRepository::existsByName)) {
             throw new AuthorNameAlreadyExistsException();
         }
 
@@ -65,17 +102,40 @@ public class AuthorServiceImpl implements AuthorService {
         existingAuthor.setBirthDate(request.birthDate());
         existingAuthor.setBiography(request.biography());
 
-        Author updatedAuthor = authorRepository.save(existingAuthor);
+        Author updatedAuthor = saveUnique(existingAuthor);
+        if (renamed) {
+            // Keeps the books' Last-Modified honest for clients revalidating with If-Modified-Since.
+            bookRepository.touchByAuthor(id);
+        }
         return AuthorMapper.toResponse(updatedAuthor);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS, key = "#id"),
+            @CacheEvict(cacheNames = BookCache.BOOKS, allEntries = true) })
     public void deleteAuthor(UUID id) {
         if (!authorRepository.existsById(id)) {
             throw new AuthorNotFoundException();
         }
+        // The author's books go with it: their ledger cells and ISBN index entries must go too.
+        bookRepository.findIdsByAuthorId(id).forEach(stockLedger::untrack);
         authorRepository.deleteById(id);
+        bookCountCache.invalidate();
+        bookCache.clearIsbnIndex();
+    }
+
+    // The name filter only sees this instance's writes, so the unique index has the last word.
+    private Author saveUnique(Author author) {
+        Author saved = authorRepository.save(author);
+        try {
+            authorRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw new AuthorNameAlreadyExistsException();
+        }
+        uniquenessFilters.add(UniquenessFilters.Key.AUTHOR_NAME, saved.getName());
+        return saved;
     }
 
 }
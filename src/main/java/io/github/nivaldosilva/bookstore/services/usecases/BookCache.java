@@ -0,0 +1,81 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read-through cache of {@link BookResponse} by id, plus an ISBN to id index so both lookups share
+ * one copy of each book. Evictions are applied immediately and again after the surrounding
+ * transaction commits, so a concurrent reader cannot re-cache the pre-commit state. Each eviction
+ * also makes {@link SingleFlight} forget the book lookups and listing pages in flight, since any of
+ * them may have read the book before the write.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCache {
+
+    public static final String BOOKS = "books";
+    public static final String BOOK_IDS_BY_ISBN = "bookIdsByIsbn";
+
+    private final CacheManager cacheManager;
+    private final SingleFlight singleFlight;
+
+    public BookResponse get(UUID id, Supplier<BookResponse> loader) {
+        try {
+            return cache(BOOKS).get(id, loader::get);
+        } catch (Cache.ValueRetrievalException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public UUID getIdByIsbn(String isbn) {
+        String id = cache(BOOK_IDS_BY_ISBN).get(isbn, String.class);
+        return id != null ? UUID.fromString(id) : null;
+    }
+
+    // Ids are indexed as strings: the JSON remote tier does not keep type hints for scalar values.
+    // Books themselves only enter the cache through get's loader.
+    public void index(String isbn, UUID id) {
+        cache(BOOK_IDS_BY_ISBN).put(isbn, id.toString());
+    }
+
+    public void evict(UUID id) {
+        CacheEvictions.evict(cache(BOOKS), id);
+        singleFlight.forget(SingleFlight.Group.BOOK_BY_ID, id);
+        forgetLookupsWithoutId();
+    }
+
+    public void evictIsbn(String isbn) {
+        CacheEvictions.evict(cache(BOOK_IDS_BY_ISBN), isbn);
+        forgetLookupsWithoutId();
+    }
+
+    // Bulk writes drop the whole index once instead of publishing one eviction per ISBN.
+    public void clearIsbnIndex() {
+        cache(BOOK_IDS_BY_ISBN).clear();
+        forgetLookupsWithoutId();
+    }
+
+    // ISBN lookups and pages are not keyed by book id, so a write to any book forgets them all.
+    private void forgetLookupsWithoutId() {
+        singleFlight.forget(SingleFlight.Group.BOOK_BY_ISBN);
+        singleFlight.forget(SingleFlight.Group.BOOK_PAGE);
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+
+}
@@ -0,0 +1,126 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.github.nivaldosilva.bookstore.config.BookCountCacheProperties;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
+import io.github.nivaldosilva.bookstore.enums.CountMode;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+
+/**
+ * Caches the {@link ListingVersion} (total and latest update) of book listings per (genre, authorId)
+ * filter. It is the total of {@link CountMode#ESTIMATE} and the source of the listing tags outside
+ * {@link CountMode#EXACT}. The "estimate" is an exact count taken earlier, not a table statistic: it
+ * is kept per instance for up to {@code estimate-ttl}, and only this instance's book writes, which
+ * bump a generation counter, drop it sooner. Writes made on other instances show up once it
+ * expires. Lookups are published as {@code cache.gets} with {@code cache=bookCounts}, like the
+ * Spring-managed caches.
+ */
+@Component
+public class BookCountCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "bookCounts";
+
+    private final BookCountCacheProperties properties;
+    private final Clock clock;
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public BookCountCache(BookCountCacheProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    BookCountCache(BookCountCacheProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    private record Key(Genre genre, UUID authorId) {
+    }
+
+    private record Entry(ListingVersion version, long generation, long computedAt) {
+    }
+
+    public ListingVersion version(Genre genre, UUID authorId, Supplier<ListingVersion> loader) {
+        Key key = new Key(genre, authorId);
+        long now = clock.millis();
+        Entry entry = entries.get(key);
+        if (entry != null && isUsable(entry, now)) {
+            hits.increment();
+            return entry.version();
+        }
+        misses.increment();
+
+        long currentGeneration = generation.get();
+        ListingVersion version = loader.get();
+        if (entries.size() >= properties.maxEntries()) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(version, currentGeneration, now));
+        return version;
+    }
+
+    /**
+     * The cached version of the filter, or null when none is usable. Never queries, for callers that
+     * only want a version if it comes for free.
+     */
+    public ListingVersion cachedVersion(Genre genre, UUID authorId) {
+        Entry entry = entries.get(new Key(genre, authorId));
+        return entry != null && isUsable(entry, clock.millis()) ? entry.version() : null;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A listing running concurrently with the write may have cached a pre-commit count
+            // under the new generation, so bump it again once the write is visible.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("cache", CACHE_NAME, "cache.manager", "bookCountCache", "name", CACHE_NAME);
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags(tags).tag("result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags(tags).tag("result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached value.")
+                .register(registry);
+        Gauge.builder("cache.size", entries, ConcurrentMap::size)
+                .tags(tags)
+                .description("The number of entries in this cache.")
+                .register(registry);
+    }
+
+    private boolean isUsable(Entry entry, long now) {
+        return entry.generation() == generation.get()
+                && Duration.ofMillis(now - entry.computedAt()).compareTo(properties.estimateTtl()) < 0;
+    }
+
+}
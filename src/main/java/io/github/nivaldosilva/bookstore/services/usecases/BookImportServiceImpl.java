@@ -0,0 +1,361 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.annotation.Timed;
+import io.github.nivaldosilva.bookstore.config.MetricsConfig;
+import io.github.nivaldosilva.bookstore.dtos.request.BookRequest;
+import io.github.nivaldosilva.bookstore.dtos.response.BookImportResponse;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.ImportFormat;
+import io.github.nivaldosilva.bookstore.exceptions.AuthorNotFoundException;
+import io.github.nivaldosilva.bookstore.exceptions.IsbnAlreadyExistsException;
+import io.github.nivaldosilva.bookstore.mappers.BookMapper;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.services.interfaces.BookImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports publisher catalog files of {@link BookRequest} rows. Rows are read one at a time and
+ * handled in chunks: each chunk is validated, checked against existing ISBNs and authors with one
+ * set-based query each, and inserted as a single JDBC batch in its own transaction. Rejected rows
+ * are reported individually and never stop the rest of the file. A file whose structure breaks
+ * stops at that line; the chunks before it stay committed and the report says where it stopped.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class BookImportServiceImpl implements BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportServiceImpl.class);
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String DUPLICATED_IN_FILE = "ISBN repetido no arquivo.";
+    private static final String CONCURRENT_WRITE = "Não foi possível gravar o livro: o ISBN foi cadastrado durante a importação.";
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final BookCountCache bookCountCache;
+    private final BookCache bookCache;
+    private final UniquenessFilters uniquenessFilters;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookImportServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository,
+            BookCountCache bookCountCache, BookCache bookCache, UniquenessFilters uniquenessFilters,
+            Validator validator, ObjectMapper objectMapper, EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.bookCountCache = bookCountCache;
+        this.bookCache = bookCache;
+        this.uniquenessFilters = uniquenessFilters;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record ParsedRow(long row, BookRequest request, String isbn, String error) {
+    }
+
+    // The file cannot be read past this point, so nothing after it is a row.
+    private static final class UnreadableFileException extends RuntimeException {
+
+        UnreadableFileException(String message) {
+            super(message);
+        }
+    }
+
+    private interface RowReader extends Closeable {
+
+        ParsedRow next() throws IOException;
+
+    }
+
+    private static final class Report {
+
+        private long received;
+        private long imported;
+        private long rejected;
+        private String error;
+        private final List<BookImportResponse.RowError> errors = new ArrayList<>();
+
+        void reject(ParsedRow row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportResponse.RowError(row.row(), row.isbn(), message));
+            }
+        }
+
+        BookImportResponse toResponse() {
+            return new BookImportResponse(received, imported, rejected, List.copyOf(errors), error);
+        }
+    }
+
+    @Override
+    public BookImportResponse importBooks(InputStream input, ImportFormat format) {
+        Report report = new Report();
+        Set<String> seenIsbns = new HashSet<>();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try {
+            try (RowReader reader = format == ImportFormat.CSV ? csvReader(input) : ndjsonReader(input)) {
+                for (ParsedRow row = reader.next(); row != null; row = reader.next()) {
+                    report.received++;
+                    chunk.add(row);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        importChunk(chunk, seenIsbns, report);
+                        chunk.clear();
+                    }
+                }
+            } catch (UnreadableFileException ex) {
+                report.error = ex.getMessage();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, seenIsbns, report);
+            }
+        } finally {
+            // Chunks commit on their own, so the counts are stale even when the import ends early.
+            if (report.imported > 0) {
+                bookCountCache.invalidate();
+            }
+        }
+        logger.info("Book import finished: {} received, {} imported, {} rejected.",
+                report.received, report.imported, report.rejected);
+        return report.toResponse();
+    }
+
+    private void importChunk(List<ParsedRow> rows, Set<String> seenIsbns, Report report) {
+        List<ParsedRow> candidates = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error == null && !seenIsbns.add(row.request().isbn())) {
+                error = DUPLICATED_IN_FILE;
+            }
+            if (error != null) {
+                report.reject(row, error);
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> existingAuthors = authorRepository.findExistingIds(candidates.stream()
+                .map(row -> row.request().authorId())
+                .collect(Collectors.toSet()));
+        List<ParsedRow> withAuthor = new ArrayList<>(candidates.size());
+        for (ParsedRow row : candidates) {
+            if (existingAuthors.contains(row.request().authorId())) {
+                withAuthor.add(row);
+            } else {
+                report.reject(row, new AuthorNotFoundException().getMessage());
+            }
+        }
+
+        // A concurrent writer can still take an ISBN between the check and the insert; the chunk is
+        // then rechecked once before the remaining rows are given up on.
+        List<ParsedRow> pending = withoutExistingIsbns(withAuthor, report);
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            try {
+                List<ParsedRow> batch = pending;
+                transactionTemplate.executeWithoutResult(status -> {
+                    insert(batch);
+                    batch.forEach(row -> uniquenessFilters.add(UniquenessFilters.Key.ISBN, row.request().isbn()));
+                });
+                report.imported += batch.size();
+                bookCache.clearIsbnIndex();
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt == 2) {
+                    logger.warn("Book import chunk rejected after a concurrent ISBN conflict.", ex);
+                    pending.forEach(row -> report.reject(row, CONCURRENT_WRITE));
+                    return;
+                }
+                pending = withoutExistingIsbns(pending, report);
+            }
+        }
+    }
+
+    private List<ParsedRow> withoutExistingIsbns(List<ParsedRow> rows, Report report) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> existingIsbns = bookRepository.findExistingIsbns(rows.stream()
+                .map(row -> row.request().isbn())
+                .toList());
+        List<ParsedRow> remaining = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (existingIsbns.contains(row.request().isbn())) {
+                report.reject(row, new IsbnAlreadyExistsException().getMessage());
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    private void insert(List<ParsedRow> rows) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(CHUNK_SIZE);
+        try {
+            List<Book> books = rows.stream()
+                    .map(row -> {
+                        Book book = BookMapper.toEntity(row.request(),
+                                authorRepository.getReferenceById(row.request().authorId()));
+                        // Imported books always get generated ids, so every row is a plain batched insert.
+                        book.setId(null);
+                        return book;
+                    })
+                    .toList();
+            bookRepository.saveAll(books);
+            // Flushed through the repository so a unique key violation arrives translated.
+            bookRepository.flush();
+            entityManager.clear();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    private String validate(BookRequest request) {
+        Set<ConstraintViolation<BookRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private ParsedRow toRow(long row, Object source, String isbn) {
+        try {
+            return new ParsedRow(row, objectMapper.convertValue(source, BookRequest.class), isbn, null);
+        } catch (IllegalArgumentException ex) {
+            return new ParsedRow(row, null, isbn, invalidValueMessage(ex.getCause()));
+        }
+    }
+
+    private static String invalidValueMessage(Throwable cause) {
+        if (cause instanceof JsonMappingException mappingException && !mappingException.getPath().isEmpty()) {
+            JsonMappingException.Reference field = mappingException.getPath().get(mappingException.getPath().size() - 1);
+            if (field.getFieldName() != null) {
+                return "Valor inválido para o campo '" + field.getFieldName() + "'.";
+            }
+        }
+        return "Linha com formato inválido.";
+    }
+
+    // CSV files need a header row naming the BookRequest fields; empty cells are read as null.
+    private RowReader csvReader(InputStream input) throws IOException {
+        CsvMapper csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .build();
+        MappingIterator<Map<String, String>> iterator = csvMapper.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(input);
+
+        return new RowReader() {
+
+            private long row;
+
+            @Override
+            public ParsedRow next() {
+                Map<String, String> values;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        return null;
+                    }
+                    values = iterator.nextValue();
+                } catch (IOException | RuntimeJsonMappingException ex) {
+                    throw new UnreadableFileException("Arquivo CSV inválido na linha "
+                            + iterator.getCurrentLocation().getLineNr() + ".");
+                }
+                row++;
+                values.replaceAll((column, value) -> value == null || value.isEmpty() ? null : value);
+                return toRow(row, values, values.get("isbn"));
+            }
+
+            @Override
+            public void close() throws IOException {
+                iterator.close();
+            }
+        };
+    }
+
+    // NDJSON files hold one BookRequest object per line; blank lines are skipped.
+    private RowReader ndjsonReader(InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        return new RowReader() {
+
+            private long row;
+
+            @Override
+            public ParsedRow next() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) {
+                        return null;
+                    }
+                    row++;
+                } while (line.isBlank());
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    JsonNode isbn = node.path("isbn");
+                    return toRow(row, node, isbn.isTextual() ? isbn.asText() : null);
+                } catch (JsonProcessingException ex) {
+                    return new ParsedRow(row, null, null, "JSON inválido.");
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+}
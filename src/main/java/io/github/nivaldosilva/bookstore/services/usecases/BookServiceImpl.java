@@ -1,74 +1,198 @@
 package io.github.nivaldosilva.bookstore.services.usecases;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.annotation.Timed;
+import io.github.nivaldosilva.bookstore.config.MetricsConfig;
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
 import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.BookRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
 import io.github.nivaldosilva.bookstore.entities.Author;
 import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.CountMode;
 import io.github.nivaldosilva.bookstore.enums.Genre;
 import io.github.nivaldosilva.bookstore.exceptions.AuthorNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.BookNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.IsbnAlreadyExistsException;
+import io.github.nivaldosilva.bookstore.exceptions.StockLedgerDisabledException;
 import io.github.nivaldosilva.bookstore.mappers.BookMapper;
+import io.github.nivaldosilva.bookstore.mappers.CursorMapper;
 import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
 import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookSummaryRepository.BookSummary;
 import io.github.nivaldosilva.bookstore.services.interfaces.BookService;
-import lombok.RequiredArgsConstructor;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import jakarta.persistence.EntityManager;
 
+/**
+ * Book use cases. Lookups by id, by ISBN and listing pages go through {@link SingleFlight}, and
+ * each open their read-only transaction inside it, so a burst of identical reads runs one query
+ * and the callers waiting on it hold no pooled connection.
+ */
 @Service
-@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class BookServiceImpl implements BookService {
 
+    private static final String ID_PROPERTY = "id";
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
+    private final StockLedger stockLedger;
+    private final BookCountCache bookCountCache;
+    private final BookCache bookCache;
+    private final UniquenessFilters uniquenessFilters;
+    private final EntityManager entityManager;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate readTransaction;
+
+    public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository, StockLedger stockLedger,
+            BookCountCache bookCountCache, BookCache bookCache, UniquenessFilters uniquenessFilters,
+            EntityManager entityManager, SingleFlight singleFlight, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.stockLedger = stockLedger;
+        this.bookCountCache = bookCountCache;
+        this.bookCache = bookCache;
+        this.uniquenessFilters = uniquenessFilters;
+        this.entityManager = entityManager;
+        this.singleFlight = singleFlight;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    private record PageKey(Pageable pageable, Genre genre, UUID authorId, CountMode countMode) {
+    }
 
     @Override
     @Transactional
     public BookResponse createBook(BookRequest request) {
-        if (bookRepository.existsByIsbn(request.isbn())) {
+        if (uniquenessFilters.exists(UniquenessFilters.Key.ISBN, request.isbn(), bookRepository::existsByIsbn)) {
             throw new IsbnAlreadyExistsException();
         }
         Author author = authorRepository.findById(request.authorId())
                 .orElseThrow(AuthorNotFoundException::new);
 
         Book book = BookMapper.toEntity(request, author);
-        Book savedBook = bookRepository.save(book);
+        Book savedBook = saveUnique(book);
+        bookCountCache.invalidate();
+        bookCache.evictIsbn(savedBook.getIsbn());
         return BookMapper.toResponse(savedBook);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public BookResponse findBookById(UUID id) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(BookNotFoundException::new);
-        return BookMapper.toResponse(book);
+        return bookCache.get(id, () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, id,
+                () -> readTransaction.execute(status -> BookMapper.toResponse(bookRepository.findById(id)
+                        .orElseThrow(BookNotFoundException::new)))));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public PagedResponse<BookResponse> findAllBooks(Pageable pageable, Genre genre, UUID authorId) {
-        Specification<Book> spec = (root, query, cb) -> cb.conjunction();
-
-        if (genre != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("genre"), genre));
+    public BookResponse findBookByIsbn(String isbn) {
+        UUID cachedId = bookCache.getIdByIsbn(isbn);
+        if (cachedId != null) {
+            BookResponse book = findIndexedBook(cachedId, isbn);
+            if (book != null) {
+                return book;
+            }
         }
-        if (authorId != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("author").get("id"), authorId));
+        UUID id = singleFlight.execute(SingleFlight.Group.BOOK_BY_ISBN, isbn,
+                () -> readTransaction.execute(status -> bookRepository.findIdByIsbn(isbn)
+                        .orElseThrow(BookNotFoundException::new)));
+        bookCache.index(isbn, id);
+        BookResponse book = findBookById(id);
+        if (!isbn.equals(book.isbn())) {
+            throw new BookNotFoundException();
         }
-        Page<Book> bookPage = bookRepository.findAll(spec, pageable);
+        return book;
+    }
+
+    // The index entry is written after an uncoordinated read and may outlive the eviction of a write
+    // that changed or removed the ISBN, so it is only trusted when the book it points to still has it.
+    // The book itself always comes from the cache loader, which eviction keeps current.
+    private BookResponse findIndexedBook(UUID id, String isbn) {
+        try {
+            BookResponse book = findBookById(id);
+            if (isbn.equals(book.isbn())) {
+                return book;
+            }
+        } catch (BookNotFoundException ex) {
+            // Resolved again from the table below.
+        }
+        bookCache.evictIsbn(isbn);
+        return null;
+    }
+
+    @Override
+    public PagedResponse<BookResponse> findAllBooks(Pageable pageable, Genre genre, UUID authorId, CountMode countMode) {
+        return findAllBooks(pageable, genre, authorId, countMode, null);
+    }
+
+    @Override
+    public PagedResponse<BookResponse> findAllBooks(Pageable pageable, Genre genre, UUID authorId, CountMode countMode,
+            ListingVersion version) {
+        return singleFlight.execute(SingleFlight.Group.BOOK_PAGE, new PageKey(pageable, genre, authorId, countMode),
+                () -> readTransaction.execute(status -> loadPage(pageable, genre, authorId, countMode, version)));
+    }
+
+    @Override
+    public ListingVersion findListingVersion(Genre genre, UUID authorId, CountMode countMode) {
+        return switch (countMode) {
+            // Read fresh, and its count is then the page total, so the tag costs no extra query.
+            case EXACT -> readTransaction.execute(status -> loadListingVersion(genre, authorId));
+            case ESTIMATE -> bookCountCache.version(genre, authorId,
+                    () -> readTransaction.execute(status -> loadListingVersion(genre, authorId)));
+            case NONE -> bookCountCache.cachedVersion(genre, authorId);
+        };
+    }
+
+    private ListingVersion loadListingVersion(Genre genre, UUID authorId) {
+        return bookRepository.findListingVersion(buildSpecification(genre, authorId));
+    }
 
-        List<BookResponse> content = bookPage.getContent().stream()
+    private PagedResponse<BookResponse> loadPage(Pageable pageable, Genre genre, UUID authorId, CountMode countMode,
+            ListingVersion version) {
+        Specification<Book> spec = buildSpecification(genre, authorId);
+        Slice<BookSummary> bookSlice = bookRepository.findSummaries(spec, pageable);
+
+        List<BookResponse> content = bookSlice.getContent().stream()
                 .map(BookMapper::toResponse)
                 .collect(Collectors.toList());
 
+        if (countMode == CountMode.NONE) {
+            return new PagedResponse<>(
+                    content,
+                    bookSlice.getNumber(),
+                    bookSlice.getSize(),
+                    null,
+                    null,
+                    bookSlice.isFirst(),
+                    bookSlice.isLast());
+        }
+
+        Page<BookSummary> bookPage = PageableExecutionUtils.getPage(bookSlice.getContent(), pageable,
+                () -> countMode == CountMode.EXACT
+                        ? (version != null ? version.count() : bookRepository.count(spec))
+                        : bookCountCache.version(genre, authorId, () -> loadListingVersion(genre, authorId)).count());
+
         return new PagedResponse<>(
                 content,
                 bookPage.getNumber(),
@@ -79,13 +203,42 @@ public class BookServiceImpl implements BookService {
                 bookPage.isLast());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<BookResponse> scrollBooks(String cursor, int size, Sort sort, Genre genre, UUID authorId) {
+        validatePageSize(size);
+        Sort keysetSort = sort.getOrderFor(ID_PROPERTY) != null ? sort : sort.and(Sort.by(ID_PROPERTY));
+        Set<String> cursorKeys = keysetSort.stream()
+                .map(Sort.Order::getProperty)
+                .collect(Collectors.toSet());
+        KeysetScrollPosition position = CursorMapper.toPosition(cursor, Book.class, cursorKeys);
+
+        Window<Book> window = bookRepository.scroll(buildSpecification(genre, authorId), position, keysetSort, size);
+
+        List<BookResponse> content = window.getContent().stream()
+                .map(BookMapper::toResponse)
+                .collect(Collectors.toList());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? CursorMapper.toCursor((KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+
+        return new CursorPagedResponse<>(content, size, nextCursor, nextCursor == null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<BookResponse> consumer) {
+        ExportStreams.forEach(bookRepository.streamAllWithAuthor(), entityManager, BookMapper::toResponse, consumer);
+    }
+
     @Override
     @Transactional
     public BookResponse updateBook(UUID id, BookRequest request) {
         Book existingBook = bookRepository.findById(id)
                 .orElseThrow(BookNotFoundException::new);
 
-        if (!existingBook.getIsbn().equals(request.isbn()) && bookRepository.existsByIsbn(request.isbn())) {
+        if (!existingBook.getIsbn().equals(request.isbn())
+                && uniquenessFilters.exists(UniquenessFilters.Key.ISBN, request.isbn(), bookRepository::existsByIsbn)) {
             throw new IsbnAlreadyExistsException();
         }
 
@@ -95,6 +248,12 @@ public class BookServiceImpl implements BookService {
                     .orElseThrow(AuthorNotFoundException::new);
         }
 
+        boolean ledgerTracked = stockLedger.isTracked(id);
+        if (ledgerTracked) {
+            stockLedger.untrack(id);
+        }
+        bookCache.evictIsbn(existingBook.getIsbn());
+
         existingBook.setIsbn(request.isbn());
         existingBook.setTitle(request.title());
         existingBook.setSynopsis(request.synopsis());
@@ -104,7 +263,12 @@ public class BookServiceImpl implements BookService {
         existingBook.setStockQuantity(request.stockQuantity());
         existingBook.setAuthor(authorToUpdate);
 
-        Book updatedBook = bookRepository.save(existingBook);
+        Book updatedBook = saveUnique(existingBook);
+        bookCountCache.invalidate();
+        bookCache.evict(id);
+        if (ledgerTracked) {
+            stockLedger.track(id, updatedBook.getStockQuantity());
+        }
         return BookMapper.toResponse(updatedBook);
     }
 
@@ -114,7 +278,63 @@ public class BookServiceImpl implements BookService {
         if (!bookRepository.existsById(id)) {
             throw new BookNotFoundException();
         }
+        stockLedger.untrack(id);
         bookRepository.deleteById(id);
+        bookCountCache.invalidate();
+        // A stale ISBN entry still resolves to this id, which now misses and reports not found.
+        bookCache.evict(id);
+    }
+
+    @Override
+    @Transactional
+    public void enableStockLedger(UUID id) {
+        if (!stockLedger.isEnabled()) {
+            throw new StockLedgerDisabledException();
+        }
+        // The row lock waits for orders that already decremented the stock to commit; orders that
+        // decrement after it see the book tracked and move their reservation to the ledger.
+        Book book = bookRepository.findByIdForUpdate(id)
+                .orElseThrow(BookNotFoundException::new);
+        stockLedger.track(id, book.getStockQuantity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void disableStockLedger(UUID id) {
+        if (!bookRepository.existsById(id)) {
+            throw new BookNotFoundException();
+        }
+        stockLedger.untrack(id);
+    }
+
+    private Specification<Book> buildSpecification(Genre genre, UUID authorId) {
+        Specification<Book> spec = (root, query, cb) -> cb.conjunction();
+
+        if (genre != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("genre"), genre));
+        }
+        if (authorId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("author").get("id"), authorId));
+        }
+        return spec;
+    }
+
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    // The ISBN filter only sees this instance's writes, so the unique index has the last word.
+    private Book saveUnique(Book book) {
+        Book saved = bookRepository.save(book);
+        try {
+            bookRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw new IsbnAlreadyExistsException();
+        }
+        uniquenessFilters.add(UniquenessFilters.Key.ISBN, saved.getIsbn());
+        return saved;
     }
 
 }
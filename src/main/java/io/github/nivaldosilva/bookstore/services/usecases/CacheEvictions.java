@@ -0,0 +1,25 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+class CacheEvictions {
+
+    // Evicts now and again once the surrounding transaction commits, so a concurrent reader
+    // cannot leave the pre-commit state cached.
+    static void evict(Cache cache, Object key) {
+        cache.evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(key);
+                }
+            });
+        }
+    }
+
+}
@@ -2,10 +2,18 @@ package io.github.nivaldosilva.bookstore.services.usecases;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.annotation.Timed;
+import io.github.nivaldosilva.bookstore.config.CacheConfig;
+import io.github.nivaldosilva.bookstore.config.MetricsConfig;
 import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
 import io.github.nivaldosilva.bookstore.entities.Customer;
 import io.github.nivaldosilva.bookstore.dtos.request.CustomerRequest;
@@ -15,23 +23,39 @@ import io.github.nivaldosilva.bookstore.exceptions.CustomerNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.EmailAlreadyExistsException;
 import io.github.nivaldosilva.bookstore.mappers.CustomerMapper;
 import io.github.nivaldosilva.bookstore.services.interfaces.CustomerService;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
 
+/**
+ * Customer use cases. Registration and updates hash passwords through {@link PasswordHasher} before
+ * their write transaction opens, so the slow hash never holds a pooled connection.
+ */
 @Service
-@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final UniquenessFilters uniquenessFilters;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public CustomerServiceImpl(CustomerRepository customerRepository, PasswordHasher passwordHasher,
+            UniquenessFilters uniquenessFilters, EntityManager entityManager,
+            PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.passwordHasher = passwordHasher;
+        this.uniquenessFilters = uniquenessFilters;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Override
-    @Transactional
     public CustomerResponse registerCustomer(CustomerRequest request) {
-        if (customerRepository.existsByEmail(request.email())) {
+        if (uniquenessFilters.exists(UniquenessFilters.Key.EMAIL, request.email(), customerRepository::existsByEmail)) {
             throw new EmailAlreadyExistsException();
         }
 
-        String encryptedPassword = passwordEncoder.encode(request.password());
+        String encryptedPassword = passwordHasher.encode(request.password());
 
         Customer customer = Customer.builder()
                 .fullName(request.fullName())
@@ -39,12 +63,12 @@ public class CustomerServiceImpl implements CustomerService {
                 .password(encryptedPassword)
                 .build();
 
-        Customer savedCustomer = customerRepository.save(customer);
-        return CustomerMapper.toResponse(savedCustomer);
+        return transactionTemplate.execute(status -> CustomerMapper.toResponse(saveUnique(customer)));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public CustomerResponse findCustomerById(UUID id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(CustomerNotFoundException::new);
@@ -60,28 +84,79 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public void exportCustomers(Consumer<CustomerResponse> consumer) {
+        // Order history is left to the orders export instead of being loaded per customer.
+        ExportStreams.forEach(customerRepository.streamAll(), entityManager, CustomerMapper::toSummaryResponse,
+                consumer);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public CustomerResponse updateCustomer(UUID id, CustomerRequest request) {
         Customer existingCustomer = customerRepository.findById(id)
                 .orElseThrow(CustomerNotFoundException::new);
 
-        if (!existingCustomer.getEmail().equals(request.email()) && customerRepository.existsByEmail(request.email())) {
+        if (!existingCustomer.getEmail().equals(request.email())
+                && uniquenessFilters.exists(UniquenessFilters.Key.EMAIL, request.email(), customerRepository::existsByEmail)) {
             throw new EmailAlreadyExistsException();
         }
 
-        existingCustomer.setFullName(request.fullName());
-        existingCustomer.setEmail(request.email());
-
-        if (StringUtils.hasText(request.password())) {
-            existingCustomer.setPassword(passwordEncoder.encode(request.password()));
+        if (!StringUtils.hasText(request.password())) {
+            return applyUpdate(id, request, null, null);
         }
+        // A password is new unless the client says otherwise, and new ones take a single hash. Only a
+        // password flagged as unchanged is verified, which also upgrades a hash due for a stronger
+        // algorithm or cost.
+        CustomerResponse response = null;
+        if (Boolean.TRUE.equals(request.passwordUnchanged())) {
+            PasswordHasher.Verification verification =
+                    passwordHasher.verify(request.password(), existingCustomer.getPassword());
+            if (verification.matches()) {
+                response = applyUpdate(id, request, verification.upgradedHash(), existingCustomer.getPassword());
+            }
+        }
+        if (response == null) {
+            // A new password, one flagged unchanged that does not match, or a stored hash that changed
+            // while this request was verifying it.
+            response = applyUpdate(id, request, passwordHasher.encode(request.password()), null);
+        }
+        return response;
+    }
 
-        Customer updatedCustomer = customerRepository.save(existingCustomer);
-        return CustomerMapper.toResponse(updatedCustomer);
+    // The hashes are computed before the transaction; the changes go to the customer loaded inside it,
+    // so a concurrent update is never overwritten with the snapshot the hashing started from. Returns
+    // null, changing nothing, when the password was kept but is no longer verifiedHash.
+    private CustomerResponse applyUpdate(UUID id, CustomerRequest request, String newPasswordHash, String verifiedHash) {
+        return transactionTemplate.execute(status -> {
+            Customer customer = customerRepository.findById(id)
+                    .orElseThrow(CustomerNotFoundException::new);
+            if (newPasswordHash != null) {
+                customer.setPassword(newPasswordHash);
+            } else if (verifiedHash != null && !verifiedHash.equals(customer.getPassword())) {
+                return null;
+            }
+            customer.setFullName(request.fullName());
+            customer.setEmail(request.email());
+            return CustomerMapper.toResponse(saveUnique(customer));
+        });
+    }
+
+    // The e-mail filter only sees this instance's writes, so the unique index has the last word.
+    private Customer saveUnique(Customer customer) {
+        Customer saved = customerRepository.save(customer);
+        try {
+            customerRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw new EmailAlreadyExistsException();
+        }
+        uniquenessFilters.add(UniquenessFilters.Key.EMAIL, saved.getEmail());
+        return saved;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public void deleteCustomer(UUID id) {
         if (!customerRepository.existsById(id)) {
             throw new CustomerNotFoundException();
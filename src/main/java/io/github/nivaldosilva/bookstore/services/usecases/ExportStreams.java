@@ -0,0 +1,31 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import jakarta.persistence.EntityManager;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+class ExportStreams {
+
+    // Matches the JDBC fetch size on the streaming repository queries.
+    static final int CHUNK_SIZE = 500;
+
+    // Maps each streamed entity as it arrives and clears the persistence context once per chunk,
+    // so an export never holds more than one chunk of managed entities, whatever the table size.
+    static <E, R> void forEach(Stream<E> entities, EntityManager entityManager,
+            Function<? super E, ? extends R> mapper, Consumer<? super R> consumer) {
+        try (entities) {
+            int inChunk = 0;
+            for (var iterator = entities.iterator(); iterator.hasNext();) {
+                consumer.accept(mapper.apply(iterator.next()));
+                if (++inChunk == CHUNK_SIZE) {
+                    entityManager.clear();
+                    inChunk = 0;
+                }
+            }
+        }
+    }
+
+}
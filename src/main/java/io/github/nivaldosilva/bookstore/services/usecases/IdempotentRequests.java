@@ -0,0 +1,277 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.github.nivaldosilva.bookstore.config.IdempotencyProperties;
+import io.github.nivaldosilva.bookstore.exceptions.IdempotencyKeyReusedException;
+import io.github.nivaldosilva.bookstore.exceptions.IdempotentRequestInProgressException;
+
+/**
+ * Runs a write at most once per {@code Idempotency-Key}. The first request with a key executes the
+ * action; concurrent duplicates wait for that execution and share its outcome, and later ones get
+ * the stored response back without touching the database. A failed execution is not remembered,
+ * so the client can retry it with the same key. Reusing a key with a different payload is rejected.
+ *
+ * <p>Keys live in a bounded local cache for {@code ttl}. With {@code remote-enabled} they are also
+ * claimed in Redis, so a retry landing on another node is replayed there too; a duplicate of a
+ * request still running on another node is answered with 409 instead of waiting. The in-flight
+ * marker is leased and renewed while the request runs, however long it takes, and lapses one lease
+ * after its node dies. Like the remote cache tier, Redis is best effort: when it is unreachable
+ * keys are only deduplicated per node.
+ */
+@Component
+public class IdempotentRequests implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentRequests.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Extends the marker only while it is still the in-flight one, never a stored response.
+    private static final RedisScript<Long> RENEW_MARKER = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> response) {
+    }
+
+    // What Redis holds for a key: the response as JSON, or none while the request is still running.
+    private record Stored(String fingerprint, String response) {
+    }
+
+    private record RemoteClaim(boolean owned, Stored existing) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final IdempotencyProperties properties;
+    private final Cache<String, Entry> entries;
+    // In-flight markers this node claimed in Redis, by key, renewed until the request finishes.
+    private final Map<String, String> ownedMarkers = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public IdempotentRequests(ObjectMapper objectMapper, ObjectProvider<StringRedisTemplate> redisTemplate,
+            IdempotencyProperties properties) {
+        this(objectMapper, properties.remoteEnabled() ? redisTemplate.getIfAvailable() : null, properties);
+    }
+
+    IdempotentRequests(ObjectMapper objectMapper, StringRedisTemplate redisTemplate, IdempotencyProperties properties) {
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    /**
+     * Runs {@code action} unless a request with the same {@code key} already ran or is running, in
+     * which case its response is returned with {@link Result#replayed()} set.
+     */
+    public <T> Result<T> execute(String key, Object request, Class<T> type, Supplier<T> action) {
+        if (!properties.enabled()) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "O cabeçalho Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres.");
+        }
+        String fingerprint = fingerprint(request);
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            return await(existing, fingerprint, type);
+        }
+
+        boolean remoteOwned = false;
+        try {
+            RemoteClaim claim = claimRemote(key, fingerprint);
+            if (claim.existing() != null) {
+                Result<T> result = replayRemote(claim.existing(), fingerprint, type);
+                entry.response().complete(result.value());
+                return result;
+            }
+            remoteOwned = claim.owned();
+            T value = action.get();
+            if (remoteOwned) {
+                ownedMarkers.remove(key);
+                storeRemote(key, fingerprint, value);
+            }
+            entry.response().complete(value);
+            executed.increment();
+            return new Result<>(value, false);
+        } catch (RuntimeException ex) {
+            entries.asMap().remove(key, entry);
+            if (remoteOwned) {
+                ownedMarkers.remove(key);
+                releaseRemote(key);
+            }
+            entry.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private <T> Result<T> await(Entry existing, String fingerprint, Class<T> type) {
+        if (!existing.fingerprint().equals(fingerprint)) {
+            rejected.increment();
+            throw new IdempotencyKeyReusedException();
+        }
+        boolean inFlight = !existing.response().isDone();
+        Object value;
+        try {
+            value = existing.response().get(properties.inFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // The duplicate fails the same way the request it joined did.
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            rejected.increment();
+            throw new IdempotentRequestInProgressException();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new IdempotentRequestInProgressException();
+        }
+        (inFlight ? coalesced : replayed).increment();
+        return new Result<>(type.cast(value), true);
+    }
+
+    private RemoteClaim claimRemote(String key, String fingerprint) {
+        if (redisTemplate == null) {
+            return new RemoteClaim(false, null);
+        }
+        try {
+            // The in-flight marker expires on its own if this node dies before storing the response.
+            String marker = write(new Stored(fingerprint, null));
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(properties.keyPrefix() + key, marker,
+                    properties.inFlightLease());
+            if (Boolean.TRUE.equals(claimed)) {
+                ownedMarkers.put(key, marker);
+                return new RemoteClaim(true, null);
+            }
+            String stored = redisTemplate.opsForValue().get(properties.keyPrefix() + key);
+            return new RemoteClaim(false, stored != null ? objectMapper.readValue(stored, Stored.class) : null);
+        } catch (DataAccessException | JsonProcessingException ex) {
+            logger.warn("Failed to claim idempotency key '{}' in Redis: {}", key, ex.getMessage());
+            return new RemoteClaim(false, null);
+        }
+    }
+
+    /**
+     * Renews the lease of every in-flight marker this node holds, so a request running longer than
+     * the lease is not taken for abandoned and executed again elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.idempotency.in-flight-refresh-interval:PT10S}")
+    public void renewInFlight() {
+        if (redisTemplate == null) {
+            return;
+        }
+        String lease = String.valueOf(properties.inFlightLease().toMillis());
+        ownedMarkers.forEach((key, marker) -> {
+            try {
+                redisTemplate.execute(RENEW_MARKER, List.of(properties.keyPrefix() + key), marker, lease);
+            } catch (DataAccessException ex) {
+                logger.warn("Failed to renew idempotency key '{}' in Redis: {}", key, ex.getMessage());
+            }
+        });
+    }
+
+    private <T> Result<T> replayRemote(Stored stored, String fingerprint, Class<T> type) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            rejected.increment();
+            throw new IdempotencyKeyReusedException();
+        }
+        if (stored.response() == null) {
+            rejected.increment();
+            throw new IdempotentRequestInProgressException();
+        }
+        try {
+            T value = objectMapper.readValue(stored.response(), type);
+            replayed.increment();
+            return new Result<>(value, true);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", ex);
+        }
+    }
+
+    private void storeRemote(String key, String fingerprint, Object value) {
+        try {
+            Stored stored = new Stored(fingerprint, objectMapper.writeValueAsString(value));
+            redisTemplate.opsForValue().set(properties.keyPrefix() + key, write(stored), properties.ttl());
+        } catch (DataAccessException | JsonProcessingException ex) {
+            logger.warn("Failed to store response for idempotency key '{}' in Redis: {}", key, ex.getMessage());
+        }
+    }
+
+    private void releaseRemote(String key) {
+        try {
+            redisTemplate.delete(properties.keyPrefix() + key);
+        } catch (DataAccessException ex) {
+            logger.warn("Failed to release idempotency key '{}' in Redis: {}", key, ex.getMessage());
+        }
+    }
+
+    private String write(Stored stored) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(stored);
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint request", ex);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "executed", executed);
+        register(registry, "replayed", replayed);
+        register(registry, "coalesced", coalesced);
+        register(registry, "rejected", rejected);
+    }
+
+    private static void register(MeterRegistry registry, String result, LongAdder counter) {
+        FunctionCounter.builder("bookstore.idempotency.requests", counter, LongAdder::sum)
+                .tag("result", result)
+                .description("Requests carrying an Idempotency-Key, by whether the action ran")
+                .register(registry);
+    }
+
+}
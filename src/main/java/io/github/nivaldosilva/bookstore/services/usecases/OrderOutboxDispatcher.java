@@ -0,0 +1,172 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.github.nivaldosilva.bookstore.config.CacheConfig;
+import io.github.nivaldosilva.bookstore.config.OrderPipelineProperties;
+import io.github.nivaldosilva.bookstore.entities.OrderOutboxEvent;
+import io.github.nivaldosilva.bookstore.enums.OrderEventType;
+import io.github.nivaldosilva.bookstore.enums.OrderStatus;
+import io.github.nivaldosilva.bookstore.repositories.OrderOutboxRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderRepository;
+
+/**
+ * Drains the {@code order_outbox} table in batches, one transaction per batch. Placed orders move
+ * from {@code PENDING} to {@code PROCESSING} with a single guarded UPDATE, so an order cancelled in
+ * the meantime is left alone, and cancelled or returned orders give their stock back with one
+ * adjustment per book. The handled events are deleted in the same transaction as their effects.
+ *
+ * <p>When a batch fails, its events are retried one per transaction so a single bad event does not
+ * hold back the ones queued behind it. Each solo failure counts as an attempt, and an event that
+ * reaches the configured maximum stays in the table without being picked up again.
+ */
+@Component
+public class OrderOutboxDispatcher implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxDispatcher.class);
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final StockReturns stockReturns;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Map<OrderEventType, LongAdder> dispatched = new EnumMap<>(OrderEventType.class);
+    private final LongAdder deadLettered = new LongAdder();
+
+    public OrderOutboxDispatcher(OrderOutboxRepository outboxRepository, OrderRepository orderRepository,
+            StockReturns stockReturns, CacheManager cacheManager, PlatformTransactionManager transactionManager,
+            OrderPipelineProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.orderRepository = orderRepository;
+        this.stockReturns = stockReturns;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = properties.batchSize();
+        this.maxAttempts = properties.maxAttempts();
+        for (OrderEventType type : OrderEventType.values()) {
+            dispatched.put(type, new LongAdder());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.order-pipeline.dispatch-interval:PT1S}")
+    public void dispatch() {
+        List<UUID> batch = new ArrayList<>();
+        try {
+            do {
+                batch.clear();
+                transactionTemplate.executeWithoutResult(status -> dispatchBatch(batch));
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException ex) {
+            // The batch rolled back with its events; find the failing ones by running each alone.
+            logger.warn("Order outbox batch failed, dispatching its {} events one at a time.", batch.size(), ex);
+            batch.forEach(this::dispatchAlone);
+        }
+    }
+
+    private void dispatchBatch(List<UUID> locked) {
+        List<OrderOutboxEvent> events = outboxRepository.lockNextBatch(maxAttempts, Limit.of(batchSize));
+        events.forEach(event -> locked.add(event.getId()));
+        handle(events);
+    }
+
+    private void dispatchAlone(UUID eventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.lockById(eventId)
+                    .ifPresent(event -> handle(List.of(event))));
+        } catch (RuntimeException ex) {
+            recordFailedAttempt(eventId, ex);
+        }
+    }
+
+    private void recordFailedAttempt(UUID eventId, RuntimeException failure) {
+        try {
+            OrderOutboxEvent event = transactionTemplate.execute(status -> outboxRepository.lockById(eventId)
+                    .map(locked -> {
+                        locked.setAttempts(locked.getAttempts() + 1);
+                        return locked;
+                    })
+                    .orElse(null));
+            if (event == null) {
+                return;
+            }
+            if (event.getAttempts() >= maxAttempts) {
+                deadLettered.increment();
+                logger.error("Order outbox event {} ({} of order {}) failed {} times and will not be retried.",
+                        eventId, event.getType(), event.getOrderId(), event.getAttempts(), failure);
+            } else {
+                logger.warn("Order outbox event {} failed, attempt {} of {}.", eventId, event.getAttempts(),
+                        maxAttempts, failure);
+            }
+        } catch (RuntimeException ex) {
+            // Without the count the event is simply retried as if this attempt never happened.
+            logger.warn("Could not record the failed attempt of order outbox event {}.", eventId, ex);
+        }
+    }
+
+    private void handle(List<OrderOutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<OrderEventType, List<UUID>> orderIdsByType = events.stream()
+                .collect(Collectors.groupingBy(OrderOutboxEvent::getType,
+                        () -> new EnumMap<>(OrderEventType.class),
+                        Collectors.mapping(OrderOutboxEvent::getOrderId, Collectors.toList())));
+
+        List<UUID> placed = orderIdsByType.getOrDefault(OrderEventType.PLACED, List.of());
+        if (!placed.isEmpty()) {
+            startProcessing(placed);
+        }
+        List<UUID> returning = events.stream()
+                .filter(event -> event.getType() != OrderEventType.PLACED)
+                .map(OrderOutboxEvent::getOrderId)
+                .toList();
+        if (!returning.isEmpty()) {
+            stockReturns.returnStock(returning);
+        }
+
+        outboxRepository.deleteAllByIdInBatch(events.stream().map(OrderOutboxEvent::getId).toList());
+        orderIdsByType.forEach((type, orderIds) -> dispatched.get(type).add(orderIds.size()));
+    }
+
+    private void startProcessing(List<UUID> orderIds) {
+        orderRepository.transitionStatus(orderIds, OrderStatus.PENDING, OrderStatus.PROCESSING);
+        // Cached customers embed their orders.
+        Cache customers = cacheManager.getCache(CacheConfig.CUSTOMERS);
+        if (customers != null) {
+            orderRepository.findCustomerIds(orderIds).forEach(customerId -> CacheEvictions.evict(customers, customerId));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dispatched.forEach((type, counter) -> FunctionCounter
+                .builder("bookstore.orders.outbox.dispatched", counter, LongAdder::sum)
+                .tag("type", type.name().toLowerCase(Locale.ROOT))
+                .description("Order outbox events handled by the dispatcher")
+                .register(registry));
+        FunctionCounter.builder("bookstore.orders.outbox.dead_lettered", deadLettered, LongAdder::sum)
+                .description("Order outbox events that reached the attempt limit and are no longer retried")
+                .register(registry);
+    }
+
+}
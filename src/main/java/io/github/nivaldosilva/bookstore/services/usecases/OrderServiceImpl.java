@@ -1,12 +1,35 @@
 package io.github.nivaldosilva.bookstore.services.usecases;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.annotation.Timed;
+import io.github.nivaldosilva.bookstore.config.CacheConfig;
+import io.github.nivaldosilva.bookstore.config.MetricsConfig;
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.OrderItemRequest;
 import io.github.nivaldosilva.bookstore.dtos.request.OrderRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
@@ -14,25 +37,48 @@ import io.github.nivaldosilva.bookstore.entities.Book;
 import io.github.nivaldosilva.bookstore.entities.Customer;
 import io.github.nivaldosilva.bookstore.entities.Order;
 import io.github.nivaldosilva.bookstore.entities.OrderItem;
+import io.github.nivaldosilva.bookstore.entities.OrderOutboxEvent;
+import io.github.nivaldosilva.bookstore.enums.OrderEventType;
 import io.github.nivaldosilva.bookstore.enums.OrderStatus;
 import io.github.nivaldosilva.bookstore.exceptions.BookNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.CustomerNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.InsufficientStockException;
+import io.github.nivaldosilva.bookstore.exceptions.InvalidOrderStatusTransitionException;
 import io.github.nivaldosilva.bookstore.exceptions.OrderNotFoundException;
+import io.github.nivaldosilva.bookstore.mappers.CursorMapper;
 import io.github.nivaldosilva.bookstore.mappers.OrderMapper;
 import io.github.nivaldosilva.bookstore.repositories.BookRepository;
 import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderOutboxRepository;
 import io.github.nivaldosilva.bookstore.repositories.OrderRepository;
 import io.github.nivaldosilva.bookstore.services.interfaces.OrderService;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Order use cases. Checkout and status changes only record the order and an {@link OrderOutboxEvent};
+ * moving placed orders into processing and returning stock of cancelled or returned orders is left
+ * to {@link OrderOutboxDispatcher}.
+ */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final String ID_PROPERTY = "id";
+    private static final String CREATED_AT_PROPERTY = "createdAt";
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
+    private final OrderOutboxRepository outboxRepository;
     private final CustomerRepository customerRepository;
     private final BookRepository bookRepository;
+    private final StockLedger stockLedger;
+    private final StockReturns stockReturns;
+    private final BookCache bookCache;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -49,28 +95,38 @@ public class OrderServiceImpl implements OrderService {
                 .status(OrderStatus.PENDING)
                 .build();
 
-        BigDecimal totalOrderAmount = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new ArrayList<>();
-
+        Map<String, Integer> quantitiesByIsbn = new LinkedHashMap<>();
         for (OrderItemRequest itemRequest : orderRequest.items()) {
-            Book book = bookRepository.findByIsbn(itemRequest.bookIsbn())
-                    .orElseThrow(BookNotFoundException::new);
+            quantitiesByIsbn.merge(itemRequest.bookIsbn(), itemRequest.quantity(), Integer::sum);
+        }
+
+        Map<String, Book> booksByIsbn = bookRepository.findByIsbnIn(quantitiesByIsbn.keySet()).stream()
+                .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
 
-            if (book.getStockQuantity() < itemRequest.quantity()) {
-                throw new InsufficientStockException(
-                        "Estoque insuficiente para o livro: " + book.getTitle() + ". Disponível: "
-                                + book.getStockQuantity() + ", Solicitado: " + itemRequest.quantity());
+        Map<Book, Integer> quantitiesByBook = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : quantitiesByIsbn.entrySet()) {
+            Book book = booksByIsbn.get(entry.getKey());
+            if (book == null) {
+                throw new BookNotFoundException();
             }
+            quantitiesByBook.put(book, entry.getValue());
+        }
 
-            BigDecimal unitPrice = book.getPrice();
-            BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(itemRequest.quantity()));
+        reserveStock(quantitiesByBook);
 
-            book.setStockQuantity(book.getStockQuantity() - itemRequest.quantity());
-            bookRepository.save(book);
+        BigDecimal totalOrderAmount = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>();
+
+        for (Map.Entry<Book, Integer> entry : quantitiesByBook.entrySet()) {
+            Book book = entry.getKey();
+            int quantity = entry.getValue();
+
+            BigDecimal unitPrice = book.getPrice();
+            BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
 
             OrderItem orderItem = OrderItem.builder()
                     .book(book)
-                    .quantity(itemRequest.quantity())
+                    .quantity(quantity)
                     .unitPrice(unitPrice)
                     .totalPrice(totalPrice)
                     .order(order)
@@ -84,6 +140,11 @@ public class OrderServiceImpl implements OrderService {
         order.setItems(orderItems);
 
         Order savedOrder = orderRepository.save(order);
+        outboxRepository.save(OrderOutboxEvent.builder()
+                .orderId(savedOrder.getId())
+                .type(OrderEventType.PLACED)
+                .build());
+        evictCustomer(customer.getId());
 
         return OrderMapper.toResponse(savedOrder);
     }
@@ -91,38 +152,206 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public OrderResponse findOrderById(UUID id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithDetailsById(id)
                 .orElseThrow(OrderNotFoundException::new);
         return OrderMapper.toResponse(order);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> findAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(OrderMapper::toResponse)
-                .collect(Collectors.toList());
+    public PagedResponse<OrderResponse> findAllOrders(Pageable pageable, OrderStatus status, UUID customerId,
+            LocalDateTime createdFrom, LocalDateTime createdTo) {
+        validatePageSize(pageable.getPageSize());
+        Pageable stablePageable = pageable.getSort().getOrderFor(ID_PROPERTY) != null
+                ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by(ID_PROPERTY)));
+
+        Page<UUID> idPage = orderRepository.findIds(
+                buildSpecification(status, customerId, createdFrom, createdTo), stablePageable);
+
+        return new PagedResponse<>(
+                loadOrders(idPage.getContent()),
+                idPage.getNumber(),
+                idPage.getSize(),
+                idPage.getTotalElements(),
+                idPage.getTotalPages(),
+                idPage.isFirst(),
+                idPage.isLast());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<OrderResponse> scrollOrders(String cursor, int size, Sort.Direction direction,
+            OrderStatus status, UUID customerId, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        validatePageSize(size);
+        Sort sort = Sort.by(direction, CREATED_AT_PROPERTY, ID_PROPERTY);
+        KeysetScrollPosition position = CursorMapper.toPosition(cursor, Order.class, Set.of(CREATED_AT_PROPERTY, ID_PROPERTY));
+
+        Window<OrderRepository.OrderKey> window = orderRepository.scrollKeys(
+                buildSpecification(status, customerId, createdFrom, createdTo), position, sort, size);
+
+        List<UUID> ids = window.getContent().stream()
+                .map(OrderRepository.OrderKey::getId)
+                .toList();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? CursorMapper.toCursor((KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+
+        return new CursorPagedResponse<>(loadOrders(ids), size, nextCursor, nextCursor == null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(Consumer<OrderResponse> consumer) {
+        // Orders are walked in keyset chunks rather than one open stream: each chunk needs a second
+        // fetch-joined query for its items, which a streaming MySQL result set would block.
+        Specification<Order> spec = buildSpecification(null, null, null, null);
+        Sort sort = Sort.by(CREATED_AT_PROPERTY, ID_PROPERTY);
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        boolean hasNext = true;
+        while (hasNext) {
+            Window<OrderRepository.OrderKey> window = orderRepository.scrollKeys(spec, position, sort,
+                    ExportStreams.CHUNK_SIZE);
+            List<UUID> ids = window.getContent().stream()
+                    .map(OrderRepository.OrderKey::getId)
+                    .toList();
+            loadOrders(ids).forEach(consumer);
+            entityManager.clear();
+            hasNext = window.hasNext() && !window.isEmpty();
+            if (hasNext) {
+                position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            }
+        }
     }
 
     @Override
     @Transactional
     public OrderResponse updateOrderStatus(UUID id, OrderStatus newStatus) {
-        Order existingOrder = orderRepository.findById(id)
+        // The row lock serializes this with the dispatcher and other status changes of the order.
+        Order existingOrder = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(OrderNotFoundException::new);
+        OrderStatus currentStatus = existingOrder.getStatus();
 
-        existingOrder.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(existingOrder);
+        if (currentStatus != newStatus) {
+            if (!currentStatus.canTransitionTo(newStatus)) {
+                throw new InvalidOrderStatusTransitionException(currentStatus, newStatus);
+            }
+            existingOrder.setStatus(newStatus);
+            orderRepository.save(existingOrder);
+            if (newStatus.returnsStock()) {
+                outboxRepository.save(OrderOutboxEvent.builder()
+                        .orderId(id)
+                        .type(newStatus == OrderStatus.CANCELLED ? OrderEventType.CANCELLED : OrderEventType.RETURNED)
+                        .build());
+            }
+            evictCustomer(existingOrder.getCustomer().getId());
+        }
 
-        return OrderMapper.toResponse(updatedOrder);
+        return OrderMapper.toResponse(orderRepository.findWithDetailsById(id)
+                .orElseThrow(OrderNotFoundException::new));
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, allEntries = true)
     public void deleteOrder(UUID id) {
-        if (!orderRepository.existsById(id)) {
-            throw new OrderNotFoundException();
+        // Events are locked before the order, in the dispatcher's order, and read again under the
+        // order lock to catch a status change committed in between.
+        outboxRepository.lockByOrderId(id);
+        Order order = orderRepository.findByIdForUpdate(id)
+                .orElseThrow(OrderNotFoundException::new);
+        List<OrderOutboxEvent> events = outboxRepository.lockByOrderId(id);
+        // A cancellation or return not dispatched yet still owes the stock, which its items hold.
+        if (events.stream().anyMatch(event -> event.getType() != OrderEventType.PLACED)) {
+            stockReturns.returnStock(List.of(id));
+        }
+        outboxRepository.deleteAllInBatch(events);
+        orderRepository.delete(order);
+    }
+
+    // Second phase of a listing: fetch-join only the orders of the page, keeping the page order.
+    private List<OrderResponse> loadOrders(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Order> ordersById = orderRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return ids.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .map(OrderMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private Specification<Order> buildSpecification(OrderStatus status, UUID customerId,
+            LocalDateTime createdFrom, LocalDateTime createdTo) {
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new IllegalArgumentException("A data inicial deve ser anterior à data final.");
+        }
+        Specification<Order> spec = (root, query, cb) -> cb.conjunction();
+
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (customerId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId));
         }
-        orderRepository.deleteById(id);
+        if (createdFrom != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get(CREATED_AT_PROPERTY), createdFrom));
+        }
+        if (createdTo != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get(CREATED_AT_PROPERTY), createdTo));
+        }
+        return spec;
+    }
+
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    // Cached customers embed their orders.
+    private void evictCustomer(UUID customerId) {
+        Cache customers = cacheManager.getCache(CacheConfig.CUSTOMERS);
+        if (customers != null) {
+            CacheEvictions.evict(customers, customerId);
+        }
+    }
+
+    private void reserveStock(Map<Book, Integer> quantitiesByBook) {
+        // The ledger or the conditional UPDATE is the only stock write: the loaded entities are left
+        // untouched so dirty checking never overwrites the database value with a stale one.
+        Map<UUID, Integer> decrements = new LinkedHashMap<>();
+        quantitiesByBook.forEach((book, quantity) -> {
+            if (!stockLedger.isTracked(book.getId())) {
+                decrements.put(book.getId(), quantity);
+            } else if (!stockLedger.tryReserve(book.getId(), quantity)) {
+                throw insufficientStock(book, quantity);
+            }
+        });
+        // Every book whose stock lives in the books table is decremented in one batched write.
+        Set<UUID> insufficient = bookRepository.decrementStock(decrements);
+        quantitiesByBook.forEach((book, quantity) -> {
+            if (insufficient.contains(book.getId())) {
+                throw insufficientStock(book, quantity);
+            }
+            // The book was put on the ledger while the UPDATE waited for its row lock, from a stock
+            // that did not include it: undo it under the same lock and reserve from the ledger instead.
+            if (decrements.containsKey(book.getId()) && stockLedger.isTracked(book.getId())) {
+                bookRepository.adjustStock(book.getId(), quantity);
+                if (!stockLedger.tryReserve(book.getId(), quantity)) {
+                    throw insufficientStock(book, quantity);
+                }
+            }
+            bookCache.evict(book.getId());
+        });
+    }
+
+    private static InsufficientStockException insufficientStock(Book book, int quantity) {
+        return new InsufficientStockException(
+                "Estoque insuficiente para o livro: " + book.getTitle() + ". Disponível: "
+                        + book.getStockQuantity() + ", Solicitado: " + quantity);
     }
 
 }
@@ -0,0 +1,103 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.github.nivaldosilva.bookstore.config.PasswordHashingProperties;
+import io.github.nivaldosilva.bookstore.exceptions.PasswordHashingUnavailableException;
+
+/**
+ * Runs password hashing on a fixed pool of workers with a bounded queue. Callers still wait for
+ * the result, but at most {@code workers} hashes burn CPU at once, and a signup burst beyond the
+ * queue is turned away with {@link PasswordHashingUnavailableException} instead of stalling every
+ * request thread. Callers hash before opening their transaction, so no connection is held meanwhile.
+ */
+@Component
+public class PasswordHasher implements MeterBinder, DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, PasswordHashingProperties properties) {
+        int workers = properties.workers() > 0 ? properties.workers() : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Outcome of checking a password against its stored hash. {@code upgradedHash} is set when the
+     * password matched but the stored hash uses an older algorithm or cost and should be replaced.
+     */
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Verification verify(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> {
+            if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                return new Verification(false, null);
+            }
+            return new Verification(true,
+                    passwordEncoder.upgradeEncoding(encodedPassword) ? passwordEncoder.encode(rawPassword) : null);
+        });
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException();
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed.", ex.getCause());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bookstore.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(registry);
+        Gauge.builder("bookstore.password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a worker")
+                .register(registry);
+        FunctionCounter.builder("bookstore.password.hashing.rejected", rejected, LongAdder::sum)
+                .description("Password hashes turned away because the queue was full")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,145 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.github.nivaldosilva.bookstore.config.SingleFlightProperties;
+
+/**
+ * Collapses concurrent identical reads into one computation. The first caller for a key runs the
+ * loader; callers arriving while it is in flight wait for it and get the same result or exception.
+ * Nothing is kept once the call completes. Writes {@link #forget} the calls they may have made stale,
+ * now and again after their transaction commits, so a caller arriving after a write commits starts a
+ * new load instead of joining one that may have read the state before it. A follower that waits longer than its group's timeout stops waiting and runs the loader
+ * itself, so one stuck query cannot hold every reader of a key.
+ *
+ * <p>Callers should run the loader's transaction inside it: waiting followers then hold no pooled
+ * connection.
+ */
+@Component
+public class SingleFlight implements MeterBinder {
+
+    public enum Group {
+        BOOK_BY_ID, BOOK_BY_ISBN, BOOK_PAGE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private record CallKey(Group group, Object key) {
+    }
+
+    private static final class Counters {
+
+        private final LongAdder leaders = new LongAdder();
+        private final LongAdder followers = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+    }
+
+    private final SingleFlightProperties properties;
+    private final ConcurrentMap<CallKey, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+    private final Map<Group, Counters> counters = new EnumMap<>(Group.class);
+
+    public SingleFlight(SingleFlightProperties properties) {
+        this.properties = properties;
+        for (Group group : Group.values()) {
+            counters.put(group, new Counters());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Group group, Object key, Supplier<T> loader) {
+        if (!properties.enabled()) {
+            return loader.get();
+        }
+        Counters counter = counters.get(group);
+        CallKey callKey = new CallKey(group, key);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = calls.putIfAbsent(callKey, call);
+        if (inFlight == null) {
+            counter.leaders.increment();
+            try {
+                T value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error ex) {
+                call.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                calls.remove(callKey, call);
+            }
+        }
+
+        try {
+            Object value = inFlight.get(properties.timeout(group.tag).toMillis(), TimeUnit.MILLISECONDS);
+            counter.followers.increment();
+            return (T) value;
+        } catch (ExecutionException ex) {
+            counter.followers.increment();
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            counter.timeouts.increment();
+            return loader.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight " + group.tag + " lookup", ex);
+        }
+    }
+
+    /** Stops callers from joining the in-flight call for the key; the ones already waiting still get its result. */
+    public void forget(Group group, Object key) {
+        CallKey callKey = new CallKey(group, key);
+        forgetNowAndAfterCommit(() -> calls.remove(callKey));
+    }
+
+    /** Like {@link #forget(Group, Object)}, for every key of the group. */
+    public void forget(Group group) {
+        forgetNowAndAfterCommit(() -> calls.keySet().removeIf(callKey -> callKey.group() == group));
+    }
+
+    // Same timing as CacheEvictions: a load started before the commit must not be joined after it.
+    private static void forgetNowAndAfterCommit(Runnable forget) {
+        forget.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget.run();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counters.forEach((group, counter) -> {
+            register(registry, group, "leader", counter.leaders);
+            register(registry, group, "follower", counter.followers);
+            register(registry, group, "timeout", counter.timeouts);
+        });
+    }
+
+    private static void register(MeterRegistry registry, Group group, String result, LongAdder counter) {
+        FunctionCounter.builder("bookstore.single-flight.calls", counter, LongAdder::sum)
+                .tag("group", group.tag).tag("result", result)
+                .description("Coalesced reads by whether the caller ran the lookup or shared an in-flight one")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,254 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.github.nivaldosilva.bookstore.config.StockLedgerProperties;
+import io.github.nivaldosilva.bookstore.entities.StockLedgerBook;
+import io.github.nivaldosilva.bookstore.entities.StockLedgerDelta;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.StockLedgerBookRepository;
+import io.github.nivaldosilva.bookstore.repositories.StockLedgerDeltaRepository;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+
+/**
+ * Keeps the reservable stock of hot books in memory so concurrent checkouts do not serialize on
+ * the same {@code books} row. Reservations are decided by a compare-and-set on a per-book
+ * counter and recorded as a {@link StockLedgerDelta} row in the order's own transaction, so a
+ * committed order always has its delta on disk and a rolled back one never does. A periodic
+ * {@link #flush()} folds the committed deltas into {@code books.stock_quantity} and deletes them
+ * in one transaction, and startup does the same for whatever a crash left behind.
+ *
+ * <p>The counters are this instance's alone: with several instances each would sell the same
+ * stock. Tracking is therefore refused unless {@code bookstore.stock-ledger.enabled} is set, which
+ * is only valid for single-instance deployments.
+ */
+@Service
+public class StockLedgerImpl implements StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedgerImpl.class);
+
+    private static final int FLUSH_BATCH_SIZE = 1_000;
+
+    private final BookRepository bookRepository;
+    private final StockLedgerDeltaRepository deltaRepository;
+    private final StockLedgerBookRepository trackedBookRepository;
+    private final BookCache bookCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final ConcurrentMap<UUID, Cell> cells = new ConcurrentHashMap<>();
+
+    public StockLedgerImpl(BookRepository bookRepository, StockLedgerDeltaRepository deltaRepository,
+            StockLedgerBookRepository trackedBookRepository, BookCache bookCache,
+            PlatformTransactionManager transactionManager, StockLedgerProperties properties) {
+        this.bookRepository = bookRepository;
+        this.deltaRepository = deltaRepository;
+        this.trackedBookRepository = trackedBookRepository;
+        this.bookCache = bookCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = properties.enabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        flush();
+        List<StockLedgerBook> tracked = trackedBookRepository.findAll();
+        if (!enabled) {
+            if (!tracked.isEmpty()) {
+                logger.warn("Stock ledger is disabled, {} books are no longer tracked.", tracked.size());
+                trackedBookRepository.deleteAllInBatch(tracked);
+            }
+            return;
+        }
+        tracked.forEach(trackedBook -> bookRepository.findById(trackedBook.getBookId())
+                .ifPresent(book -> track(book.getId(), book.getStockQuantity())));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts reserving {@code bookId} in memory from {@code stockQuantity}, the book's
+     * {@code stock_quantity}, plus the deltas committed but not flushed yet.
+     */
+    @Override
+    public void track(UUID bookId, int stockQuantity) {
+        if (!enabled) {
+            throw new IllegalStateException("O ledger de estoque está desativado.");
+        }
+        if (cells.containsKey(bookId)) {
+            return;
+        }
+        int available = transactionTemplate.execute(status -> {
+            if (!trackedBookRepository.existsById(bookId)) {
+                trackedBookRepository.save(StockLedgerBook.builder().bookId(bookId).build());
+            }
+            return stockQuantity + Math.toIntExact(deltaRepository.sumByBookId(bookId));
+        });
+        cells.putIfAbsent(bookId, new Cell(available));
+    }
+
+    @Override
+    public void untrack(UUID bookId) {
+        if (cells.remove(bookId) == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> trackedBookRepository.deleteById(bookId));
+        // Orders of the untracked book decrement stock_quantity directly, which must be current.
+        flush();
+    }
+
+    @Override
+    public boolean isTracked(UUID bookId) {
+        return cells.containsKey(bookId);
+    }
+
+    @Override
+    public boolean tryReserve(UUID bookId, int quantity) {
+        Cell cell = requireCell(bookId);
+        if (!cell.tryTake(quantity)) {
+            return false;
+        }
+        try {
+            recordDelta(bookId, -quantity);
+        } catch (RuntimeException ex) {
+            cell.available.addAndGet(quantity);
+            throw ex;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        settleReservation(bookId, cell, quantity);
+                    } else {
+                        // The delta row rolled back with the order.
+                        cell.available.addAndGet(quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public void release(UUID bookId, int quantity) {
+        Cell cell = cells.get(bookId);
+        recordDelta(bookId, quantity);
+        if (cell == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseTo(bookId, cell, quantity);
+            return;
+        }
+        // The units only become reservable once the transaction giving them back has committed.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseTo(bookId, cell, quantity);
+            }
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${bookstore.stock-ledger.flush-interval:PT1S}")
+    public void flush() {
+        try {
+            List<StockLedgerDelta> flushed;
+            do {
+                flushed = transactionTemplate.execute(status -> flushBatch());
+                flushed.stream().map(StockLedgerDelta::getBookId).distinct().forEach(bookCache::evict);
+            } while (flushed.size() == FLUSH_BATCH_SIZE);
+        } catch (RuntimeException ex) {
+            // The batch rolled back with its deletes, so its deltas are applied by the next flush.
+            logger.error("Failed to flush stock ledger, deltas will be retried: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private List<StockLedgerDelta> flushBatch() {
+        List<StockLedgerDelta> batch = deltaRepository.lockNextBatch(Limit.of(FLUSH_BATCH_SIZE));
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        Map<UUID, Integer> deltas = batch.stream()
+                .collect(Collectors.groupingBy(StockLedgerDelta::getBookId,
+                        Collectors.summingInt(StockLedgerDelta::getDelta)));
+        deltas.forEach((bookId, delta) -> {
+            if (delta != 0) {
+                bookRepository.adjustStock(bookId, delta);
+            }
+        });
+        deltaRepository.deleteAllInBatch(batch);
+        return batch;
+    }
+
+    // Joins the caller's transaction when there is one, so the delta commits or rolls back with it.
+    private void recordDelta(UUID bookId, int delta) {
+        deltaRepository.save(StockLedgerDelta.builder().bookId(bookId).delta(delta).build());
+    }
+
+    private void settleReservation(UUID bookId, Cell reserved, int quantity) {
+        Cell cell = cells.get(bookId);
+        if (cell != null && cell != reserved) {
+            // Re-tracked while the order was open, from a stock that may not include it yet. Taking
+            // it again errs towards selling less, never more.
+            cell.available.addAndGet(-quantity);
+        }
+    }
+
+    private void releaseTo(UUID bookId, Cell released, int quantity) {
+        // A book re-tracked since may already count these units, so they are not added twice.
+        if (cells.get(bookId) == released) {
+            released.available.addAndGet(quantity);
+        }
+    }
+
+    private Cell requireCell(UUID bookId) {
+        Cell cell = cells.get(bookId);
+        if (cell == null) {
+            throw new IllegalStateException("Livro não está no ledger de estoque: " + bookId);
+        }
+        return cell;
+    }
+
+    private static final class Cell {
+
+        private final AtomicInteger available;
+
+        private Cell(int available) {
+            this.available = new AtomicInteger(available);
+        }
+
+        private boolean tryTake(int quantity) {
+            int current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return true;
+        }
+    }
+
+}
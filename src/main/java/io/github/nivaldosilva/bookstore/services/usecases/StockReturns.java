@@ -0,0 +1,39 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderItemRepository;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Gives the stock of orders back with one adjustment per book, to the ledger or the books table
+ * depending on where the book's stock lives. Must run inside the transaction that settles the
+ * orders, before their items are deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockReturns {
+
+    private final OrderItemRepository orderItemRepository;
+    private final BookRepository bookRepository;
+    private final StockLedger stockLedger;
+    private final BookCache bookCache;
+
+    public void returnStock(List<UUID> orderIds) {
+        for (OrderItemRepository.BookQuantity returned : orderItemRepository.sumQuantitiesByBook(orderIds)) {
+            UUID bookId = returned.getBookId();
+            int quantity = Math.toIntExact(returned.getQuantity());
+            if (stockLedger.isTracked(bookId)) {
+                // Recorded in this transaction; the units become reservable once it commits.
+                stockLedger.release(bookId, quantity);
+            } else {
+                bookRepository.adjustStock(bookId, quantity);
+            }
+            bookCache.evict(bookId);
+        }
+    }
+
+}
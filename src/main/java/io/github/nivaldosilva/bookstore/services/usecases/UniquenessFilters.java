@@ -0,0 +1,192 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import java.text.Normalizer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.github.nivaldosilva.bookstore.config.UniquenessFilterProperties;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+
+/**
+ * In-memory {@link BloomFilter} per uniqueness key, used to skip the {@code existsBy...} query
+ * when a value is definitely not taken. Filters are warmed once the application is ready and
+ * rebuilt from the database every {@code rebuild-interval}, which also sheds deleted values. Until
+ * a filter is built, and when the feature is disabled, every check goes to the database.
+ *
+ * <p>A filter only knows about writes made through this instance, so the database unique
+ * constraints stay the source of truth: callers still translate a constraint violation on save
+ * into the same conflict a positive check would have raised.
+ */
+@Component
+public class UniquenessFilters implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniquenessFilters.class);
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    public enum Key {
+        ISBN, EMAIL, AUTHOR_NAME
+    }
+
+    private record Source(LongSupplier count, Supplier<Stream<String>> values) {
+    }
+
+    private static final class Slot {
+
+        private final Source source;
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder confirmed = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+        private final LongAdder unfiltered = new LongAdder();
+
+        private Slot(Source source) {
+            this.source = source;
+        }
+    }
+
+    private final UniquenessFilterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Key, Slot> slots = new EnumMap<>(Key.class);
+
+    public UniquenessFilters(BookRepository bookRepository, CustomerRepository customerRepository,
+            AuthorRepository authorRepository, PlatformTransactionManager transactionManager,
+            UniquenessFilterProperties properties) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        slots.put(Key.ISBN, new Slot(new Source(bookRepository::count, bookRepository::streamAllIsbns)));
+        slots.put(Key.EMAIL, new Slot(new Source(customerRepository::count, customerRepository::streamAllEmails)));
+        slots.put(Key.AUTHOR_NAME, new Slot(new Source(authorRepository::count, authorRepository::streamAllNames)));
+    }
+
+    /**
+     * Returns whether {@code value} is taken, running {@code lookup} only when the filter cannot
+     * rule it out.
+     */
+    public boolean exists(Key key, String value, Predicate<String> lookup) {
+        Slot slot = slots.get(key);
+        BloomFilter filter = slot.current;
+        if (filter == null) {
+            slot.unfiltered.increment();
+            return lookup.test(value);
+        }
+        if (!filter.mightContain(normalize(value))) {
+            slot.skipped.increment();
+            return false;
+        }
+        boolean exists = lookup.test(value);
+        (exists ? slot.confirmed : slot.falsePositives).increment();
+        return exists;
+    }
+
+    /**
+     * Records a value being written. It is added right away and again after the surrounding
+     * transaction commits, so a rebuild that read the table before the commit cannot drop it.
+     */
+    public void add(Key key, String value) {
+        Slot slot = slots.get(key);
+        String normalized = normalize(value);
+        addTo(slot, normalized);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addTo(slot, normalized);
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${bookstore.uniqueness-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${bookstore.uniqueness-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+        if (!properties.enabled()) {
+            return;
+        }
+        slots.forEach((key, slot) -> {
+            try {
+                rebuild(slot);
+            } catch (RuntimeException ex) {
+                logger.warn("Could not rebuild the {} uniqueness filter; keeping the previous one.", key, ex);
+            }
+        });
+    }
+
+    private void rebuild(Slot slot) {
+        // Sized for twice the current rows so the filter keeps its rate until the next rebuild.
+        long expected = Math.max(properties.expectedInsertions(), slot.source.count().getAsLong() * 2);
+        BloomFilter next = new BloomFilter(expected, properties.falsePositiveRate());
+        slot.building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> values = slot.source.values().get()) {
+                    values.forEach(value -> next.add(normalize(value)));
+                }
+            });
+            slot.current = next;
+        } finally {
+            slot.building = null;
+        }
+    }
+
+    private static void addTo(Slot slot, String normalized) {
+        BloomFilter current = slot.current;
+        if (current != null) {
+            current.add(normalized);
+        }
+        BloomFilter building = slot.building;
+        if (building != null) {
+            building.add(normalized);
+        }
+    }
+
+    // Folded like the default MySQL collation compares (case and accent insensitive), so a value the
+    // database would treat as equal always maps to the same bits. Extra folding only adds false positives.
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).stripTrailing();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        slots.forEach((key, slot) -> {
+            String tag = key.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            register(registry, tag, "skipped", slot.skipped);
+            register(registry, tag, "confirmed", slot.confirmed);
+            register(registry, tag, "false-positive", slot.falsePositives);
+            register(registry, tag, "unfiltered", slot.unfiltered);
+        });
+    }
+
+    private static void register(MeterRegistry registry, String key, String result, LongAdder counter) {
+        FunctionCounter.builder("bookstore.uniqueness.checks", counter, LongAdder::sum)
+                .tag("key", key).tag("result", result)
+                .description("Uniqueness checks by whether the in-memory filter skipped the database query")
+                .register(registry);
+    }
+
+}
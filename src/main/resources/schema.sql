@@ -1,3 +1,6 @@
+DROP TABLE IF EXISTS stock_ledger_deltas;
+DROP TABLE IF EXISTS stock_ledger_books;
+DROP TABLE IF EXISTS order_outbox;
 DROP TABLE IF EXISTS order_items;
 DROP TABLE IF EXISTS orders;
 DROP TABLE IF EXISTS books;
@@ -66,11 +69,40 @@ CREATE TABLE order_items (
 );
 
 
-CREATE INDEX idx_authors_name ON authors(name);
+
+CREATE TABLE order_outbox (
+    id BINARY(16) PRIMARY KEY,
+    order_id BINARY(16) NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+
+CREATE TABLE stock_ledger_books (
+    book_id BINARY(16) PRIMARY KEY,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+
+CREATE TABLE stock_ledger_deltas (
+    id BINARY(16) PRIMARY KEY,
+    book_id BINARY(16) NOT NULL,
+    delta INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+
+CREATE UNIQUE INDEX idx_authors_name ON authors(name);
 CREATE INDEX idx_books_author_fk ON books(author_fk); 
 CREATE INDEX idx_books_genre ON books(genre);
 CREATE INDEX idx_books_isbn ON books(isbn);
+CREATE INDEX idx_books_title ON books(title);
 CREATE INDEX idx_customers_email ON customers(email);
-CREATE INDEX idx_orders_customer_fk ON orders(customer_fk); 
+CREATE INDEX idx_orders_customer_fk ON orders(customer_fk, created_at); 
+CREATE INDEX idx_orders_created_at ON orders(created_at, id);
+CREATE INDEX idx_orders_status ON orders(status, created_at);
 CREATE INDEX idx_order_items_order_fk ON order_items(order_fk); 
 CREATE INDEX idx_order_items_book_fk ON order_items(book_fk);
+CREATE INDEX idx_order_outbox_order_id ON order_outbox(order_id);
+CREATE INDEX idx_stock_ledger_deltas_book_id ON stock_ledger_deltas(book_id);
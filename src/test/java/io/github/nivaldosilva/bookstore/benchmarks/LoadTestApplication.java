@@ -0,0 +1,48 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.BookstoreApplication;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Boots the application for the load test runners: {@code loadtest} profile, a random port and no
+ * authentication. Extra arguments are passed through as
+ * command-line properties, e.g. {@code --spring.threads.virtual.enabled=true}.
+ */
+final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(BookstoreApplication.class, PermitAllSecurity.class)
+                .profiles("loadtest")
+                .run(arguments.toArray(String[]::new));
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    // Replaces the default basic-auth chain, whose per-request password check would dominate the run.
+    @EnableWebSecurity
+    static class PermitAllSecurity {
+
+        @Bean
+        SecurityFilterChain permitAll(HttpSecurity http) throws Exception {
+            return http.authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+                    .csrf(csrf -> csrf.disable())
+                    .build();
+        }
+    }
+
+}
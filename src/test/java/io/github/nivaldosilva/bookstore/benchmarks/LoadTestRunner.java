@@ -0,0 +1,330 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.benchmarks.LoadTestSeeder.Catalog;
+import io.github.nivaldosilva.bookstore.benchmarks.LoadTestSeeder.SeededBook;
+import io.github.nivaldosilva.bookstore.benchmarks.LoadTestSeeder.SeededCustomer;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * End-to-end load test. Boots the application on the {@code loadtest} profile (in-memory H2 in
+ * MySQL mode), seeds a synthetic catalog and drives a weighted mix of reads and checkouts over
+ * HTTP with a fixed number of closed-loop clients. Prints a summary and writes a JSON report with
+ * throughput, p50/p90/p99/max latency and status counts per operation.
+ *
+ * <p>Runs offline on one machine; not part of the test suite:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * LOAD_CONCURRENCY=64 LOAD_DURATION=PT1M java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     io.github.nivaldosilva.bookstore.benchmarks.LoadTestRunner [--any.spring.property=value ...]
+ * </pre>
+ *
+ * Settings come from the environment: {@code LOAD_AUTHORS}, {@code LOAD_BOOKS},
+ * {@code LOAD_CUSTOMERS}, {@code LOAD_CONCURRENCY}, {@code LOAD_WARMUP}, {@code LOAD_DURATION},
+ * {@code LOAD_MIX} (e.g. {@code get-book=40,list-books=20,checkout=15}) and {@code LOAD_REPORT}.
+ */
+public final class LoadTestRunner {
+
+    enum Operation {
+        GET_BOOK,
+        GET_BOOK_BY_ISBN,
+        LIST_BOOKS,
+        GET_CUSTOMER,
+        LIST_ORDERS,
+        CHECKOUT;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        static Operation fromKey(String key) {
+            return valueOf(key.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    record Settings(int authors, int books, int customers, int concurrency, Duration warmup, Duration duration,
+            Map<Operation, Integer> mix, Path report) {
+
+        static Settings fromEnvironment() {
+            return new Settings(
+                    Integer.parseInt(env("LOAD_AUTHORS", "200")),
+                    Integer.parseInt(env("LOAD_BOOKS", "10000")),
+                    Integer.parseInt(env("LOAD_CUSTOMERS", "2000")),
+                    Integer.parseInt(env("LOAD_CONCURRENCY", "32")),
+                    Duration.parse(env("LOAD_WARMUP", "PT15S")),
+                    Duration.parse(env("LOAD_DURATION", "PT60S")),
+                    parseMix(env("LOAD_MIX",
+                            "get-book=35,get-book-by-isbn=10,list-books=20,get-customer=10,list-orders=10,checkout=15")),
+                    Path.of(env("LOAD_REPORT", "target/load-test-report.json")));
+        }
+
+        Settings withMix(Map<Operation, Integer> newMix) {
+            return new Settings(authors, books, customers, concurrency, warmup, duration, newMix, report);
+        }
+
+        Settings withConcurrency(int newConcurrency) {
+            return new Settings(authors, books, customers, newConcurrency, warmup, duration, mix, report);
+        }
+    }
+
+    record OperationReport(long requests, double throughput, double p50Ms, double p90Ms, double p99Ms, double maxMs,
+            Map<String, Long> statuses) {
+
+        long count(int status) {
+            return statuses.getOrDefault(String.valueOf(status), 0L);
+        }
+    }
+
+    record Report(Instant startedAt, Map<String, Object> settings, Map<String, Object> environment,
+            OperationReport total, Map<String, OperationReport> operations) {
+    }
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromEnvironment();
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(args)) {
+            Report report = run(context, settings);
+            print(report);
+            Files.createDirectories(settings.report().toAbsolutePath().getParent());
+            new ObjectMapper().findAndRegisterModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .writerWithDefaultPrettyPrinter()
+                    .writeValue(settings.report().toFile(), report);
+            System.out.println("Report written to " + settings.report().toAbsolutePath());
+        }
+    }
+
+    static Report run(ConfigurableApplicationContext context, Settings settings) throws InterruptedException {
+        Instant startedAt = Instant.now();
+        Catalog catalog = LoadTestSeeder.seed(context, settings.authors(), settings.books(), settings.customers());
+        Driver driver = new Driver(LoadTestApplication.baseUrl(context), catalog, settings);
+        driver.run();
+
+        Map<String, OperationReport> operations = new LinkedHashMap<>();
+        settings.mix().keySet().forEach(operation -> operations.put(operation.key(),
+                driver.recorders.get(operation).report(settings.duration())));
+        Map<String, Object> settingsView = new LinkedHashMap<>();
+        settingsView.put("authors", settings.authors());
+        settingsView.put("books", settings.books());
+        settingsView.put("customers", settings.customers());
+        settingsView.put("concurrency", settings.concurrency());
+        settingsView.put("warmup", settings.warmup().toString());
+        settingsView.put("duration", settings.duration().toString());
+        settingsView.put("mix", settings.mix().entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().key(), Map.Entry::getValue, (a, b) -> a,
+                        LinkedHashMap::new)));
+        settingsView.put("profiles", List.of(context.getEnvironment().getActiveProfiles()));
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("javaVersion", Runtime.version().toString());
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        environment.put("virtualThreads", context.getEnvironment().getProperty("spring.threads.virtual.enabled",
+                Boolean.class, false));
+        return new Report(startedAt, settingsView, environment, driver.total.report(settings.duration()), operations);
+    }
+
+    static void print(Report report) {
+        System.out.printf("%-18s %10s %10s %9s %9s %9s %9s  %s%n", "operation", "requests", "req/s", "p50 ms",
+                "p90 ms", "p99 ms", "max ms", "statuses");
+        report.operations().forEach((name, operation) -> printRow(name, operation));
+        printRow("total", report.total());
+    }
+
+    private static void printRow(String name, OperationReport operation) {
+        System.out.printf("%-18s %,10d %,10.1f %9.1f %9.1f %9.1f %9.1f  %s%n", name, operation.requests(),
+                operation.throughput(), operation.p50Ms(), operation.p90Ms(), operation.p99Ms(), operation.maxMs(),
+                operation.statuses());
+    }
+
+    private static final class Recorder {
+
+        private final Timer latency;
+        private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        Recorder(String name, Duration window) {
+            this.latency = Timer.builder("loadtest." + name)
+                    .publishPercentiles(0.5, 0.9, 0.99)
+                    // One window longer than the run, so the percentiles cover every sample.
+                    .distributionStatisticExpiry(window.multipliedBy(2))
+                    .distributionStatisticBufferLength(1)
+                    .register(new SimpleMeterRegistry());
+        }
+
+        void record(int status, long nanos) {
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            latency.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        OperationReport report(Duration duration) {
+            HistogramSnapshot snapshot = latency.takeSnapshot();
+            ValueAtPercentile[] percentiles = snapshot.percentileValues();
+            Map<String, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status < 0 ? "io-error" : String.valueOf(status),
+                    count.sum()));
+            return new OperationReport(snapshot.count(), snapshot.count() / (duration.toNanos() / 1e9),
+                    percentiles[0].value(TimeUnit.MILLISECONDS), percentiles[1].value(TimeUnit.MILLISECONDS),
+                    percentiles[2].value(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS), counts);
+        }
+    }
+
+    private static final class Driver {
+
+        private final String baseUrl;
+        private final Catalog catalog;
+        private final Settings settings;
+        private final Operation[] weighted;
+        private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        private final Recorder total;
+        private final HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        Driver(String baseUrl, Catalog catalog, Settings settings) {
+            this.baseUrl = baseUrl;
+            this.catalog = catalog;
+            this.settings = settings;
+            Duration window = settings.warmup().plus(settings.duration());
+            List<Operation> slots = new ArrayList<>();
+            settings.mix().forEach((operation, weight) -> {
+                recorders.put(operation, new Recorder(operation.key(), window));
+                for (int i = 0; i < weight; i++) {
+                    slots.add(operation);
+                }
+            });
+            this.weighted = slots.toArray(Operation[]::new);
+            this.total = new Recorder("total", window);
+        }
+
+        void run() throws InterruptedException {
+            long measureFrom = System.nanoTime() + settings.warmup().toNanos();
+            long measureUntil = measureFrom + settings.duration().toNanos();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < settings.concurrency(); i++) {
+                    clients.submit(() -> client(measureFrom, measureUntil));
+                }
+                clients.shutdown();
+                if (!clients.awaitTermination(settings.warmup().plus(settings.duration()).plusMinutes(2).toSeconds(),
+                        TimeUnit.SECONDS)) {
+                    clients.shutdownNow();
+                }
+            } finally {
+                http.close();
+            }
+        }
+
+        private void client(long measureFrom, long measureUntil) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < measureUntil) {
+                Operation operation = weighted[random.nextInt(weighted.length)];
+                HttpRequest request = request(operation, random);
+                long started = System.nanoTime();
+                int status;
+                try {
+                    status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException ex) {
+                    status = -1;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long finished = System.nanoTime();
+                if (started >= measureFrom && finished <= measureUntil) {
+                    recorders.get(operation).record(status, finished - started);
+                    total.record(status, finished - started);
+                }
+            }
+        }
+
+        private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+            return switch (operation) {
+                case GET_BOOK -> get("/api/v1/books/" + randomBook(random).id());
+                case GET_BOOK_BY_ISBN -> get("/api/v1/books/isbn/" + randomBook(random).isbn());
+                case LIST_BOOKS -> get("/api/v1/books?size=20&page=" + random.nextInt(10)
+                        + (random.nextBoolean() ? "&genre=" + Genre.values()[random.nextInt(Genre.values().length)] : ""));
+                case GET_CUSTOMER -> get("/api/v1/customers/" + randomCustomer(random).id());
+                case LIST_ORDERS -> get("/api/v1/orders?size=20&customerId=" + randomCustomer(random).id());
+                case CHECKOUT -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/orders"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(checkoutBody(random)))
+                        .build();
+            };
+        }
+
+        private String checkoutBody(ThreadLocalRandom random) {
+            int items = 1 + random.nextInt(3);
+            StringBuilder body = new StringBuilder("{\"customerEmail\":\"")
+                    .append(randomCustomer(random).email())
+                    .append("\",\"items\":[");
+            for (int i = 0; i < items; i++) {
+                body.append(i == 0 ? "" : ",")
+                        .append("{\"bookIsbn\":\"").append(randomBook(random).isbn()).append("\",\"quantity\":1}");
+            }
+            return body.append("]}").toString();
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        }
+
+        private SeededBook randomBook(ThreadLocalRandom random) {
+            return catalog.books().get(random.nextInt(catalog.books().size()));
+        }
+
+        private SeededCustomer randomCustomer(ThreadLocalRandom random) {
+            return catalog.customers().get(random.nextInt(catalog.customers().size()));
+        }
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(Operation.fromKey(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1);
+        }
+        return weights;
+    }
+
+    static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.entities.Customer;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Inserts synthetic authors, books and customers through the repositories. Data is derived from a
+ * fixed seed so every run starts from the same catalog; stock is large enough that checkouts never
+ * run out during a run.
+ */
+final class LoadTestSeeder {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int STOCK = 1_000_000;
+    private static final Genre[] GENRES = Genre.values();
+
+    record SeededBook(UUID id, String isbn) {
+    }
+
+    record SeededCustomer(UUID id, String email) {
+    }
+
+    record Catalog(List<SeededBook> books, List<SeededCustomer> customers) {
+    }
+
+    private LoadTestSeeder() {
+    }
+
+    static Catalog seed(ConfigurableApplicationContext context, int authorCount, int bookCount, int customerCount) {
+        AuthorRepository authorRepository = context.getBean(AuthorRepository.class);
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        Random random = new Random(42);
+
+        List<Author> authors = new ArrayList<>(authorCount);
+        for (int i = 0; i < authorCount; i++) {
+            authors.add(Author.builder()
+                    .name("Autor " + i)
+                    .nationality("Brasileira")
+                    .birthDate(LocalDate.of(1900, 1, 1).plusDays(random.nextInt(30_000)))
+                    .build());
+        }
+        authors = authorRepository.saveAll(authors);
+
+        List<SeededBook> books = new ArrayList<>(bookCount);
+        for (int from = 0; from < bookCount; from += CHUNK_SIZE) {
+            List<Book> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = from; i < Math.min(from + CHUNK_SIZE, bookCount); i++) {
+                chunk.add(Book.builder()
+                        .isbn(String.format("978%010d", i))
+                        .title("Livro " + i)
+                        .synopsis("Sinopse do livro " + i)
+                        .genre(GENRES[random.nextInt(GENRES.length)])
+                        .publicationDate(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(27_000)))
+                        .price(BigDecimal.valueOf(1_000 + random.nextInt(19_000), 2))
+                        .stockQuantity(STOCK)
+                        .author(authors.get(random.nextInt(authors.size())))
+                        .build());
+            }
+            bookRepository.saveAll(chunk).forEach(book -> books.add(new SeededBook(book.getId(), book.getIsbn())));
+        }
+
+        // Customers are inserted directly with one shared hash; encoding a password per row would
+        // make seeding take minutes.
+        String password = context.getBean(PasswordEncoder.class).encode("loadtest");
+        List<SeededCustomer> customers = new ArrayList<>(customerCount);
+        for (int from = 0; from < customerCount; from += CHUNK_SIZE) {
+            List<Customer> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = from; i < Math.min(from + CHUNK_SIZE, customerCount); i++) {
+                chunk.add(Customer.builder()
+                        .fullName("Cliente " + i)
+                        .email("cliente" + i + "@loadtest.example")
+                        .password(password)
+                        .build());
+            }
+            customerRepository.saveAll(chunk)
+                    .forEach(customer -> customers.add(new SeededCustomer(customer.getId(), customer.getEmail())));
+        }
+        return new Catalog(List.copyOf(books), List.copyOf(customers));
+    }
+
+}
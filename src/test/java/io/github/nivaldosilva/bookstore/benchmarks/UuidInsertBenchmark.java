@@ -0,0 +1,117 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.entities.UuidV7Generator;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares insert throughput of random (v4) and time-ordered (v7) UUID primary keys on a table that
+ * keeps growing. Both runs insert into a {@code BINARY(16)} primary key, like the application
+ * schema, and print rows per second for each segment so the slowdown of random keys shows up once
+ * the index no longer fits in the buffer pool.
+ *
+ * <p>Not part of the test suite; run it against the database being evaluated:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * BENCH_JDBC_URL=jdbc:mysql://localhost:3306/bookstore_db?rewriteBatchedStatements=true \
+ * BENCH_JDBC_USER=root BENCH_JDBC_PASSWORD=root BENCH_ROWS=5000000 \
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     io.github.nivaldosilva.bookstore.benchmarks.UuidInsertBenchmark
+ * </pre>
+ *
+ * Without {@code BENCH_JDBC_URL} it runs on an in-memory H2 database in MySQL mode.
+ */
+public final class UuidInsertBenchmark {
+
+    private static final String URL = env("BENCH_JDBC_URL", "jdbc:h2:mem:uuid_bench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    private static final String USER = env("BENCH_JDBC_USER", "sa");
+    private static final String PASSWORD = env("BENCH_JDBC_PASSWORD", "");
+    private static final int ROWS = Integer.parseInt(env("BENCH_ROWS", "1000000"));
+    private static final int BATCH_SIZE = Integer.parseInt(env("BENCH_BATCH_SIZE", "1000"));
+    private static final int SEGMENT_SIZE = Integer.parseInt(env("BENCH_SEGMENT_SIZE", String.valueOf(ROWS / 10)));
+
+    private UuidInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            System.out.printf("%s, %d rows, batches of %d%n", connection.getMetaData().getDatabaseProductName(),
+                    ROWS, BATCH_SIZE);
+            run(connection, "uuid_bench_v4", UUID::randomUUID);
+            run(connection, "uuid_bench_v7", UuidV7Generator::next);
+        }
+    }
+
+    private static void run(Connection connection, String table, Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id BINARY(16) PRIMARY KEY, "
+                    + "created_at TIMESTAMP NOT NULL, payload VARCHAR(255) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+
+        String payload = "x".repeat(200);
+        long started = System.nanoTime();
+        long segmentStarted = started;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, created_at, payload) VALUES (?, ?, ?)")) {
+            for (int row = 1; row <= ROWS; row++) {
+                insert.setBytes(1, toBytes(ids.get()));
+                insert.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                insert.setString(3, payload);
+                insert.addBatch();
+                if (row % BATCH_SIZE == 0 || row == ROWS) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (row % SEGMENT_SIZE == 0) {
+                    long now = System.nanoTime();
+                    System.out.printf("%s: rows %,d-%,d at %,.0f rows/s%n", table, row - SEGMENT_SIZE + 1, row,
+                            SEGMENT_SIZE / ((now - segmentStarted) / 1e9));
+                    segmentStarted = now;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        System.out.printf("%s: %,.0f rows/s overall%s%n", table, ROWS / ((System.nanoTime() - started) / 1e9),
+                tableSize(connection, table));
+    }
+
+    // MySQL reports clustered index (data) and secondary index sizes; page splits from random keys inflate both.
+    private static String tableSize(Connection connection, String table) throws SQLException {
+        if (!connection.getMetaData().getDatabaseProductName().equals("MySQL")) {
+            return "";
+        }
+        try (PreparedStatement query = connection.prepareStatement("SELECT data_length, index_length "
+                + "FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?")) {
+            query.setString(1, table);
+            try (ResultSet result = query.executeQuery()) {
+                return result.next()
+                        ? String.format(", %,d KiB data, %,d KiB index", result.getLong(1) / 1024, result.getLong(2) / 1024)
+                        : "";
+            }
+        }
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.nivaldosilva.bookstore.benchmarks;
+
+import io.github.nivaldosilva.bookstore.benchmarks.LoadTestRunner.Operation;
+import io.github.nivaldosilva.bookstore.benchmarks.LoadTestRunner.OperationReport;
+import io.github.nivaldosilva.bookstore.benchmarks.LoadTestRunner.Settings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.h2.api.Trigger;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Drives {@code GET /api/v1/books/{id}} with {@code BENCH_CLIENTS} concurrent clients against the
+ * application started once on Tomcat's platform thread pool and once with
+ * {@code spring.threads.virtual.enabled}, and prints throughput, latency percentiles, how many
+ * requests the limiter turned away and how often virtual threads were pinned.
+ *
+ * <p>Uses the {@link LoadTestRunner} harness. In-memory H2 answers far faster than a networked database,
+ * so a {@code BEFORE SELECT} trigger on {@code books} sleeps {@code BENCH_DB_LATENCY_MS} per query
+ * and request threads block the way they would on MySQL. Not part of the test suite; run it with:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * BENCH_CLIENTS=5000 java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     io.github.nivaldosilva.bookstore.benchmarks.VirtualThreadsLoadBenchmark
+ * </pre>
+ */
+public final class VirtualThreadsLoadBenchmark {
+
+    private static final int CLIENTS = Integer.parseInt(LoadTestRunner.env("BENCH_CLIENTS", "5000"));
+    private static final int POOL_SIZE = Integer.parseInt(LoadTestRunner.env("BENCH_POOL_SIZE", "300"));
+    private static final long DB_LATENCY_MS = Long.parseLong(LoadTestRunner.env("BENCH_DB_LATENCY_MS", "10"));
+
+    private VirtualThreadsLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromEnvironment()
+                .withMix(Map.of(Operation.GET_BOOK, 1))
+                .withConcurrency(CLIENTS);
+        System.out.printf("%d clients, %d connections, %d ms per query, %s measured after %s warm-up%n",
+                CLIENTS, POOL_SIZE, DB_LATENCY_MS, settings.duration(), settings.warmup());
+        run(settings, false);
+        run(settings, true);
+    }
+
+    private static void run(Settings settings, boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(
+                "--server.tomcat.accept-count=" + CLIENTS,
+                "--server.tomcat.max-connections=" + (CLIENTS * 2),
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:load_" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE)) {
+            context.getBean(JdbcTemplate.class).execute("CREATE TRIGGER books_select_latency BEFORE SELECT ON books "
+                    + "CALL '" + SelectLatencyTrigger.class.getName() + "'");
+
+            OperationReport result = LoadTestRunner.run(context, settings).total();
+            Timer pinned = context.getBean(MeterRegistry.class).find("jvm.threads.virtual.pinned").timer();
+            System.out.printf("%-8s %,8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  503: %,d  other: %s  pinned: %s%n",
+                    mode, result.throughput(), result.p50Ms(), result.p99Ms(), result.count(503), result.statuses(),
+                    pinned == null ? "n/a" : pinned.count() + " (" + (long) pinned.totalTime(TimeUnit.MILLISECONDS) + " ms)");
+        }
+    }
+
+    public static class SelectLatencyTrigger implements Trigger {
+
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) {
+            try {
+                Thread.sleep(DB_LATENCY_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccessLogFilter Tests")
+class AccessLogFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Logger accessLogger;
+    private ListAppender<ILoggingEvent> appender;
+    private Level previousLevel;
+
+    @BeforeEach
+    void setUp() {
+        accessLogger = (Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER_NAME);
+        appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        previousLevel = accessLogger.getLevel();
+        accessLogger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+        accessLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    @DisplayName("Should log writes and errors in full and skip unsampled successful reads")
+    void shouldSampleOnlySuccessfulReads() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(0.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/books/1"), new MockHttpServletResponse(), status(200));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/books/2"), new MockHttpServletResponse(), status(404));
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/orders"), new MockHttpServletResponse(), status(201));
+
+        List<JsonNode> lines = lines();
+        assertEquals(2, lines.size());
+        assertEquals(404, lines.get(0).get("status").asInt());
+        assertEquals("/api/v1/books/{id}", lines.get(0).get("route").asText());
+        assertEquals("POST", lines.get(1).get("method").asText());
+        assertEquals(1.0, lines.get(1).get("sampleRate").asDouble());
+    }
+
+    @Test
+    @DisplayName("Should log a failed request as a server error")
+    void shouldLogFailedRequestAsServerError() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(1.0);
+        FilterChain failing = (request, response) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/books"), new MockHttpServletResponse(), failing));
+
+        assertEquals(500, lines().get(0).get("status").asInt());
+    }
+
+    @Test
+    @DisplayName("Should write the JDBC work of the request as valid JSON")
+    void shouldWriteJdbcWorkAsJson() throws Exception {
+        JdbcActivity activity = JdbcActivity.begin();
+        JdbcActivity.statementExecuted("select 1", 1_000);
+        JdbcActivity.rowFetched();
+        JdbcActivity.end();
+
+        JsonNode line = objectMapper.readTree(AccessLogFilter.line(Instant.EPOCH, "GET", "/api/\"x\"", 200,
+                2_500_000, activity, 0.1));
+
+        assertEquals("/api/\"x\"", line.get("route").asText());
+        assertEquals(2.5, line.get("durationMs").asDouble());
+        assertEquals(1, line.get("queries").asInt());
+        assertEquals(1, line.get("rows").asInt());
+        assertEquals(0.1, line.get("sampleRate").asDouble());
+    }
+
+    private static FilterChain status(int status) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    ((MockHttpServletRequest) request).getRequestURI().startsWith("/api/v1/books")
+                            ? "/api/v1/books/{id}"
+                            : "/api/v1/orders");
+            ((MockHttpServletResponse) response).setStatus(status);
+        };
+    }
+
+    private List<JsonNode> lines() throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (ILoggingEvent event : appender.list) {
+            lines.add(objectMapper.readTree(event.getFormattedMessage()));
+        }
+        return lines;
+    }
+}
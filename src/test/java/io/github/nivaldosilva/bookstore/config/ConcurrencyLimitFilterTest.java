@@ -0,0 +1,95 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConcurrencyLimitFilter Tests")
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should return 503 while every permit is held and serve again once it is released")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            entered.countDown();
+            try {
+                leave.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(request("/api/books"), new MockHttpServletResponse(), blockingChain);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("/api/books"), rejected, new MockFilterChain());
+        leave.countDown();
+        holder.join();
+        MockHttpServletResponse served = new MockHttpServletResponse();
+        filter.doFilter(request("/api/books"), served, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Servidor sobrecarregado"));
+        assertEquals(200, served.getStatus());
+        assertEquals(1.0, meterRegistry.get("bookstore.requests.limiter.rejected").counter().count());
+        assertEquals(0, filter.activeRequests());
+    }
+
+    @Test
+    @DisplayName("Should keep the permit of an async request until the response completes")
+    void shouldHoldPermitForAsyncRequests() throws Exception {
+        MockHttpServletRequest exportRequest = request("/api/books/export");
+        exportRequest.setAsyncSupported(true);
+        MockHttpServletResponse exportResponse = new MockHttpServletResponse();
+        filter.doFilter(exportRequest, exportResponse, (request, response) -> request.startAsync());
+
+        assertEquals(1, filter.activeRequests());
+
+        ((MockAsyncContext) exportRequest.getAsyncContext()).complete();
+
+        assertEquals(0, filter.activeRequests());
+    }
+
+    @Test
+    @DisplayName("Should never limit actuator endpoints")
+    void shouldSkipActuator() throws Exception {
+        filter.doFilter(request("/api/books"), new MockHttpServletResponse(), (request, response) -> {
+            MockHttpServletResponse health = new MockHttpServletResponse();
+            filter.doFilter(request("/actuator/health"), health, new MockFilterChain());
+            assertEquals(200, health.getStatus());
+        });
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
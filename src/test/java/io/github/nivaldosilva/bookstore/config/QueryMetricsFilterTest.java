@@ -0,0 +1,179 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QueryMetricsFilter Tests")
+class QueryMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryMetricsFilter filter;
+    private QueryCountingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = filter(false);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:query-metrics;DB_CLOSE_DELAY=-1");
+        dataSource = new QueryCountingDataSource(h2);
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS item (id INT PRIMARY KEY)");
+            statement.execute("MERGE INTO item KEY (id) VALUES (1), (2), (3)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should record the statements and rows of a request under its URI template")
+    void shouldRecordJdbcWorkPerRequest() throws Exception {
+        FilterChain chain = (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/items/{id}");
+            try (Connection connection = dataSource.getConnection();
+                    PreparedStatement select = connection.prepareStatement("SELECT id FROM item WHERE id <= ?")) {
+                select.setInt(1, 2);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        rows.getInt(1);
+                    }
+                }
+                try (PreparedStatement update = connection.prepareStatement("UPDATE item SET id = id WHERE id = ?")) {
+                    update.setInt(1, 1);
+                    update.addBatch();
+                    update.setInt(1, 3);
+                    update.addBatch();
+                    update.executeBatch();
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items/1"), new MockHttpServletResponse(), chain);
+
+        DistributionSummary statements = meterRegistry.get("bookstore.http.jdbc.statements")
+                .tag("method", "GET").tag("uri", "/api/items/{id}").summary();
+        DistributionSummary rows = meterRegistry.get("bookstore.http.jdbc.rows")
+                .tag("uri", "/api/items/{id}").summary();
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+        assertEquals(2, rows.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should not count JDBC work done outside a request")
+    void shouldIgnoreWorkOutsideRequests() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT id FROM item").close();
+        }
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items"), new MockHttpServletResponse(),
+                (request, response) -> {
+                });
+
+        assertEquals(0, meterRegistry.get("bookstore.http.jdbc.statements").tag("uri", "UNKNOWN").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should report a statement repeated past the threshold with its handler")
+    void shouldReportRepeatedStatement() throws Exception {
+        QueryDetector detector = new QueryDetector(properties(false), meterRegistry);
+        JdbcActivity activity = JdbcActivity.begin();
+        try {
+            runLookups(4);
+        } finally {
+            JdbcActivity.end();
+        }
+
+        List<QueryDetector.Violation> violations = detector.inspect(activity, "GET", "/api/items", "ItemController#list");
+
+        assertEquals(List.of(new QueryDetector.Violation(QueryDetector.ViolationType.REPEATED_STATEMENT,
+                "SELECT id FROM item WHERE id = ?", 4, 3)), violations);
+        assertEquals(1, meterRegistry.get("bookstore.http.jdbc.violations")
+                .tag("type", "repeated-statement").tag("uri", "/api/items").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should fail the request naming the controller method when fail-on-violation is set")
+    void shouldFailRequestOnViolation() throws Exception {
+        HandlerMethod handler = new HandlerMethod(this, getClass().getDeclaredMethod("runLookups", int.class));
+        FilterChain chain = (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+            runLookups(5);
+            // Larger than the response buffer, so it would have been committed without the wrapper.
+            response.getWriter().write("x".repeat(8192));
+            response.flushBuffer();
+        };
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> filter(true)
+                .doFilter(new MockHttpServletRequest("GET", "/api/items"), servletResponse, chain));
+
+        assertTrue(exception.getMessage().contains("QueryMetricsFilterTest#runLookups"));
+        assertTrue(exception.getMessage().contains("SELECT id FROM item WHERE id = ?"));
+        assertEquals(1, meterRegistry.get("bookstore.http.jdbc.statements").summary().count());
+        assertFalse(servletResponse.isCommitted());
+        assertEquals(0, servletResponse.getContentLength());
+    }
+
+    @Test
+    @DisplayName("Should release the buffered body of a request within budget when fail-on-violation is set")
+    void shouldReleaseBodyWithinBudget() throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        filter(true).doFilter(new MockHttpServletRequest("GET", "/api/items"), servletResponse,
+                (request, response) -> {
+                    runLookups(2);
+                    response.getWriter().write("[1,2]");
+                });
+
+        assertEquals("[1,2]", servletResponse.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should still unwrap to the pool behind the counting data source")
+    void shouldUnwrapToPool() throws SQLException {
+        try (HikariDataSource pool = new HikariDataSource()) {
+            QueryCountingDataSource wrapped = new QueryCountingDataSource(pool);
+
+            assertTrue(wrapped.isWrapperFor(HikariDataSource.class));
+            assertSame(pool, wrapped.unwrap(HikariDataSource.class));
+        }
+    }
+
+    private QueryMetricsFilter filter(boolean failOnViolation) {
+        return new QueryMetricsFilter(meterRegistry, new QueryDetector(properties(failOnViolation), meterRegistry));
+    }
+
+    private static QueryDetectorProperties properties(boolean failOnViolation) {
+        return new QueryDetectorProperties(true, 3, 50, Duration.ofSeconds(5), failOnViolation);
+    }
+
+    private void runLookups(int times) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement select = connection.prepareStatement("SELECT id FROM item WHERE id = ?")) {
+            for (int id = 1; id <= times; id++) {
+                select.setInt(1, id);
+                select.executeQuery().close();
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
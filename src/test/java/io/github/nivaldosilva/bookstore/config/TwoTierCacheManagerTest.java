@@ -0,0 +1,178 @@
+package io.github.nivaldosilva.bookstore.config;
+
+import io.github.nivaldosilva.bookstore.exceptions.BookNotFoundException;
+import io.github.nivaldosilva.bookstore.services.usecases.BookCache;
+import io.github.nivaldosilva.bookstore.services.usecases.SingleFlight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoTierCacheManager Tests")
+class TwoTierCacheManagerTest {
+
+    private static final String CHANNEL = "bookstore:cache-invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    // Stands in for the shared Redis tier that every node talks to.
+    private CacheManager sharedRemote;
+    private TwoTierCacheManager nodeA;
+    private TwoTierCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        sharedRemote = new ConcurrentMapCacheManager();
+        nodeA = newNode(sharedRemote);
+        nodeB = newNode(sharedRemote);
+    }
+
+    @Test
+    @DisplayName("Should serve a value loaded on one node from the shared tier on another")
+    void shouldServeValueLoadedOnOneNodeFromSharedTier() {
+        UUID id = UUID.randomUUID();
+
+        String loaded = nodeA.getCache(BookCache.BOOKS).get(id, () -> "book");
+
+        assertEquals("book", loaded);
+        assertEquals("book", nodeB.getCache(BookCache.BOOKS).get(id, () -> fail("loader must not run")));
+    }
+
+    @Test
+    @DisplayName("Should drop the local copy on other nodes when an entry is evicted")
+    void shouldDropLocalCopyOnOtherNodesWhenEvicted() {
+        UUID id = UUID.randomUUID();
+        nodeA.getCache(BookCache.BOOKS).get(id, () -> "old");
+        nodeB.getCache(BookCache.BOOKS).get(id, () -> "old");
+
+        nodeA.getCache(BookCache.BOOKS).evict(id);
+        sharedRemote.getCache(BookCache.BOOKS).put(id, "new");
+
+        assertEquals("old", nodeB.getCache(BookCache.BOOKS).get(id).get());
+        deliverPublishedMessagesTo(nodeB);
+        assertEquals("new", nodeB.getCache(BookCache.BOOKS).get(id).get());
+    }
+
+    @Test
+    @DisplayName("Should clear the local tier on other nodes when a cache is cleared")
+    void shouldClearLocalTierOnOtherNodes() {
+        nodeB.getCache(BookCache.BOOKS).put("a", "1");
+        nodeB.getCache(BookCache.BOOKS).put("b", "2");
+
+        nodeA.getCache(BookCache.BOOKS).clear();
+        deliverPublishedMessagesTo(nodeB);
+
+        assertNull(nodeB.getCache(BookCache.BOOKS).get("a"));
+        assertNull(nodeB.getCache(BookCache.BOOKS).get("b"));
+    }
+
+    @Test
+    @DisplayName("Should not write a load back to the shared tier when an eviction arrived during it")
+    void shouldSkipRemoteWriteWhenEvictedDuringLoad() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> load = CompletableFuture.supplyAsync(() -> nodeB.getCache(BookCache.BOOKS).get(id, () -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "old";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        nodeA.getCache(BookCache.BOOKS).evict(id);
+        Thread delivery = new Thread(() -> deliverPublishedMessagesTo(nodeB));
+        delivery.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        // The broadcast records the eviction, then waits for the load to finish before dropping the entry.
+        while (EnumSet.of(Thread.State.NEW, Thread.State.RUNNABLE).contains(delivery.getState())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("old", load.get(5, TimeUnit.SECONDS));
+        delivery.join(5000);
+        assertNull(sharedRemote.getCache(BookCache.BOOKS).get(id));
+        assertEquals("new", nodeB.getCache(BookCache.BOOKS).get(id, () -> "new"));
+    }
+
+    @Test
+    @DisplayName("Should ignore its own invalidation messages")
+    void shouldIgnoreOwnInvalidationMessages() {
+        nodeA.getCache(BookCache.BOOKS).clear();
+        nodeA.getCache(BookCache.BOOKS).put("a", "1");
+        sharedRemote.getCache(BookCache.BOOKS).clear();
+
+        deliverPublishedMessagesTo(nodeA);
+
+        assertEquals("1", nodeA.getCache(BookCache.BOOKS).get("a").get());
+    }
+
+    @Test
+    @DisplayName("Should keep working locally when the remote tier is unavailable")
+    void shouldKeepWorkingWhenRemoteTierIsUnavailable() {
+        Cache brokenRemote = mock(Cache.class);
+        when(brokenRemote.get(any())).thenThrow(new RedisConnectionFailureException("redis down"));
+        doThrow(new RedisConnectionFailureException("redis down")).when(brokenRemote).put(any(), any());
+        CacheManager brokenRemoteManager = mock(CacheManager.class);
+        when(brokenRemoteManager.getCache(anyString())).thenReturn(brokenRemote);
+        Cache cache = newNode(brokenRemoteManager).getCache(BookCache.BOOKS);
+
+        assertEquals("book", cache.get("a", () -> "book"));
+        assertEquals("book", cache.get("a", () -> fail("loader must not run")));
+    }
+
+    @Test
+    @DisplayName("Should propagate loader exceptions through BookCache unchanged")
+    void shouldPropagateLoaderExceptionsThroughBookCache() {
+        BookCache bookCache = new BookCache(nodeA, mock(SingleFlight.class));
+
+        assertThrows(BookNotFoundException.class, () -> bookCache.get(UUID.randomUUID(), () -> {
+            throw new BookNotFoundException();
+        }));
+        assertNull(bookCache.getIdByIsbn("978-0000000000"));
+        bookCache.index("978-0000000001", UUID.randomUUID());
+        assertNotNull(newNode(sharedRemote).getCache(BookCache.BOOK_IDS_BY_ISBN).get("978-0000000001"));
+    }
+
+    private void deliverPublishedMessagesTo(TwoTierCacheManager node) {
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq(CHANNEL), payloads.capture());
+        for (String payload : payloads.getAllValues()) {
+            node.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    payload.getBytes(StandardCharsets.UTF_8)), null);
+        }
+    }
+
+    private TwoTierCacheManager newNode(CacheManager remote) {
+        TwoTierCacheManager node = new TwoTierCacheManager(remote, redisTemplate, new ObjectMapper(),
+                new TwoTierCacheProperties(true, List.of(BookCache.BOOKS, BookCache.BOOK_IDS_BY_ISBN), 100,
+                        Duration.ofSeconds(30), Duration.ofMinutes(10), "bookstore:", CHANNEL));
+        node.afterPropertiesSet();
+        return node;
+    }
+}
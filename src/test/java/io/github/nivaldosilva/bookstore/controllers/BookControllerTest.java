@@ -0,0 +1,94 @@
+package io.github.nivaldosilva.bookstore.controllers;
+
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
+import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
+import io.github.nivaldosilva.bookstore.enums.CountMode;
+import io.github.nivaldosilva.bookstore.services.interfaces.BookImportService;
+import io.github.nivaldosilva.bookstore.services.interfaces.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookController Conditional GET Tests")
+class BookControllerTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private BookImportService bookImportService;
+
+    private MockMvc mockMvc;
+    private ListingVersion version;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new BookController(bookService, bookImportService, new ObjectMapper()))
+                .build();
+        version = new ListingVersion(LocalDateTime.of(2024, 1, 1, 12, 0), 3);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to a listing whose tag still matches without loading the page")
+    void shouldAnswerNotModifiedListingWithoutLoadingPage() throws Exception {
+        when(bookService.findListingVersion(null, null, CountMode.ESTIMATE)).thenReturn(version);
+        when(bookService.findAllBooks(any(), eq(null), eq(null), eq(CountMode.ESTIMATE), eq(version)))
+                .thenReturn(new PagedResponse<>(List.of(), 0, 10, 3L, 1, true, true));
+
+        MvcResult first = mockMvc.perform(get("/api/v1/books").param("count", "estimate"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+        mockMvc.perform(get("/api/v1/books").param("count", "estimate").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        verify(bookService, times(1)).findAllBooks(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should send a listing without ETag when no version is cached for count=none")
+    void shouldSendUntaggedListingWithoutVersion() throws Exception {
+        when(bookService.findListingVersion(null, null, CountMode.NONE)).thenReturn(null);
+        when(bookService.findAllBooks(any(), eq(null), eq(null), eq(CountMode.NONE), eq(null)))
+                .thenReturn(new PagedResponse<>(List.of(), 0, 10, null, null, true, true));
+
+        mockMvc.perform(get("/api/v1/books").param("count", "none").header("If-None-Match", "W/\"0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to a book whose strong tag still matches")
+    void shouldAnswerNotModifiedBook() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(bookService.findBookById(id)).thenReturn(BookResponse.builder().id(id).title("Iracema")
+                .updatedAt(version.lastUpdatedAt()).build());
+
+        String eTag = mockMvc.perform(get("/api/v1/books/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/books/{id}", id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+}
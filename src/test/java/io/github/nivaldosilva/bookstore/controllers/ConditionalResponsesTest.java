@@ -0,0 +1,66 @@
+package io.github.nivaldosilva.bookstore.controllers;
+
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
+import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConditionalResponses Tests")
+class ConditionalResponsesTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should tag a listing with its latest update second and count")
+    void shouldTagListingFromVersion() {
+        long second = UPDATED_AT.atZone(ZoneId.systemDefault()).toEpochSecond();
+
+        assertEquals("W/\"" + Long.toHexString(second) + "-1a\"",
+                ConditionalResponses.listingTag(new ListingVersion(UPDATED_AT, 26)));
+        assertEquals("W/\"0-0\"", ConditionalResponses.listingTag(new ListingVersion(null, 0)));
+    }
+
+    @Test
+    @DisplayName("Should leave a listing untagged without a version or right after a write")
+    void shouldNotTagUnsettledListing() {
+        assertNull(ConditionalResponses.listingTag(null));
+        assertNull(ConditionalResponses.listingTag(new ListingVersion(LocalDateTime.now(), 3)));
+        assertNotNull(ConditionalResponses.listingTag(new ListingVersion(LocalDateTime.now().minusSeconds(3), 3)));
+    }
+
+    @Test
+    @DisplayName("Should give equal representations the same strong tag and different ones different tags")
+    void shouldHashRepresentationIntoStrongTag() {
+        UUID id = UUID.randomUUID();
+        BookResponse book = BookResponse.builder().id(id).title("Iracema").authorName("José de Alencar")
+                .updatedAt(UPDATED_AT).build();
+        BookResponse same = BookResponse.builder().id(id).title("Iracema").authorName("José de Alencar")
+                .updatedAt(UPDATED_AT).build();
+        // Same updated_at second, but the author was renamed.
+        BookResponse renamed = BookResponse.builder().id(id).title("Iracema").authorName("J. de Alencar")
+                .updatedAt(UPDATED_AT).build();
+
+        ResponseEntity<BookResponse> response = ConditionalResponses.ok(book, UPDATED_AT);
+
+        String eTag = response.getHeaders().getETag();
+        assertNotNull(eTag);
+        assertFalse(eTag.startsWith("W/"));
+        assertEquals(eTag, ConditionalResponses.ok(same, UPDATED_AT).getHeaders().getETag());
+        assertNotEquals(eTag, ConditionalResponses.ok(renamed, UPDATED_AT).getHeaders().getETag());
+        assertEquals(UPDATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                response.getHeaders().getLastModified());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    @DisplayName("Should send a listing without ETag when it has no tag")
+    void shouldOmitETagForUntaggedListing() {
+        assertNull(ConditionalResponses.okListing("body", null).getHeaders().getETag());
+        assertEquals("W/\"1-2\"", ConditionalResponses.okListing("body", "W/\"1-2\"").getHeaders().getETag());
+    }
+}
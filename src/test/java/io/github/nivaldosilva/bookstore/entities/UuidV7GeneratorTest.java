@@ -0,0 +1,63 @@
+package io.github.nivaldosilva.bookstore.entities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UuidV7Generator Tests")
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should set the version 7 and RFC 9562 variant bits")
+    void shouldSetVersionAndVariantBits() {
+        UUID uuid = UuidV7Generator.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    @DisplayName("Should carry the generation time in the leading 48 bits")
+    void shouldEncodeTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertTrue(UuidV7Generator.timestampOf(uuid) >= before);
+        // Bursts from other tests may have pushed the counter a couple of milliseconds ahead.
+        assertTrue(UuidV7Generator.timestampOf(uuid) <= after + 2);
+    }
+
+    @Test
+    @DisplayName("Should keep ids increasing within a millisecond, past the counter and when the clock steps back")
+    void shouldStayMonotonic() {
+        long now = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(UuidV7Generator.next(now));
+        }
+        ids.add(UuidV7Generator.next(now - 1000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+            assertTrue(ids.get(i - 1).toString().compareTo(ids.get(i).toString()) < 0);
+        }
+        assertTrue(UuidV7Generator.timestampOf(ids.get(ids.size() - 1)) > now);
+    }
+
+    @Test
+    @DisplayName("Should not hand out the same id to concurrent callers")
+    void shouldBeUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(UuidV7Generator.next()));
+
+        assertEquals(100_000, ids.size());
+    }
+}
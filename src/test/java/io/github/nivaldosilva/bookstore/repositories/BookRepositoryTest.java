@@ -0,0 +1,189 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.github.nivaldosilva.bookstore.repositories.BookSummaryRepository.BookSummary;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("BookRepository Tests")
+class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Author tolkien;
+    private Author rowling;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        tolkien = persistAuthor("J.R.R. Tolkien");
+        rowling = persistAuthor("J.K. Rowling");
+        persistBook("978-0000000001", "The Hobbit", Genre.FANTASY, tolkien);
+        persistBook("978-0000000002", "The Silmarillion", Genre.FANTASY, tolkien);
+        persistBook("978-0000000003", "Harry Potter", Genre.FANTASY, rowling);
+        persistBook("978-0000000004", "The Casual Vacancy", Genre.FICTION, rowling);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should list book summaries with one query and no managed entities")
+    void shouldListSummariesWithOneQueryAndNoEntities() {
+        Slice<BookSummary> slice = bookRepository.findSummaries(null, PageRequest.of(0, 3, Sort.by("title")));
+
+        assertEquals(List.of("Harry Potter", "The Casual Vacancy", "The Hobbit"),
+                slice.getContent().stream().map(BookSummary::title).toList());
+        assertTrue(slice.hasNext());
+        assertEquals(rowling.getName(), slice.getContent().get(0).authorName());
+        assertEquals(rowling.getId(), slice.getContent().get(0).authorId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should apply specifications and report the last slice")
+    void shouldApplySpecificationsToSummaries() {
+        Specification<Book> spec = (root, query, cb) -> cb.and(
+                cb.equal(root.get("genre"), Genre.FANTASY),
+                cb.equal(root.get("author").get("id"), tolkien.getId()));
+
+        Slice<BookSummary> slice = bookRepository.findSummaries(spec, PageRequest.of(0, 2, Sort.by("title")));
+
+        assertEquals(List.of("The Hobbit", "The Silmarillion"),
+                slice.getContent().stream().map(BookSummary::title).toList());
+        assertFalse(slice.hasNext());
+        assertTrue(slice.getContent().stream().allMatch(summary -> tolkien.getName().equals(summary.authorName())));
+    }
+
+    @Test
+    @DisplayName("Should read a filter's listing version with one aggregate query")
+    void shouldReadListingVersionWithOneQuery() {
+        Specification<Book> spec = (root, query, cb) -> cb.equal(root.get("author").get("id"), rowling.getId());
+
+        ListingVersion version = bookRepository.findListingVersion(spec);
+
+        assertEquals(2, version.count());
+        assertNotNull(version.lastUpdatedAt());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, bookRepository.findListingVersion((root, query, cb) -> cb.disjunction()).count());
+    }
+
+    @Test
+    @DisplayName("Should scroll books with their authors in one query")
+    void shouldScrollBooksWithAuthorsInOneQuery() {
+        Window<Book> window = bookRepository.scroll((root, query, cb) -> cb.conjunction(), ScrollPosition.keyset(), Sort.by("title", "id"), 3);
+
+        assertEquals(List.of("Harry Potter", "The Casual Vacancy", "The Hobbit"),
+                window.getContent().stream().map(Book::getTitle).toList());
+        assertTrue(window.hasNext());
+        assertEquals(List.of(rowling.getName(), rowling.getName(), tolkien.getName()),
+                window.getContent().stream().map(book -> book.getAuthor().getName()).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should stream books with their authors in one read-only query")
+    void shouldStreamBooksWithAuthors() {
+        List<String> authorNames;
+        try (Stream<Book> books = bookRepository.streamAllWithAuthor()) {
+            authorNames = books.map(book -> {
+                assertTrue(entityManager.unwrap(Session.class).isReadOnly(book));
+                return book.getAuthor().getName();
+            }).toList();
+        }
+
+        assertEquals(4, authorNames.size());
+        assertTrue(authorNames.containsAll(List.of(tolkien.getName(), rowling.getName())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should decrement the stock of every book that has enough")
+    void shouldDecrementStockOfEveryBook() {
+        Book hobbit = bookRepository.findByIsbn("978-0000000001").orElseThrow();
+        Book silmarillion = bookRepository.findByIsbn("978-0000000002").orElseThrow();
+
+        Set<UUID> insufficient = bookRepository.decrementStock(Map.of(hobbit.getId(), 4, silmarillion.getId(), 10));
+        entityManager.clear();
+
+        assertTrue(insufficient.isEmpty());
+        assertEquals(6, bookRepository.findById(hobbit.getId()).orElseThrow().getStockQuantity());
+        assertEquals(0, bookRepository.findById(silmarillion.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    @DisplayName("Should leave a book without enough stock untouched and report it")
+    void shouldReportBooksWithoutEnoughStock() {
+        Book hobbit = bookRepository.findByIsbn("978-0000000001").orElseThrow();
+        Book silmarillion = bookRepository.findByIsbn("978-0000000002").orElseThrow();
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(hobbit.getId(), 4);
+        quantities.put(silmarillion.getId(), 11);
+
+        Set<UUID> insufficient = bookRepository.decrementStock(quantities);
+        entityManager.clear();
+
+        assertEquals(Set.of(silmarillion.getId()), insufficient);
+        assertEquals(6, bookRepository.findById(hobbit.getId()).orElseThrow().getStockQuantity());
+        assertEquals(10, bookRepository.findById(silmarillion.getId()).orElseThrow().getStockQuantity());
+    }
+
+    private Author persistAuthor(String name) {
+        Author author = Author.builder()
+                .name(name)
+                .nationality("British")
+                .birthDate(LocalDate.of(1950, 1, 1))
+                .biography("A long biography")
+                .build();
+        entityManager.persist(author);
+        return author;
+    }
+
+    private void persistBook(String isbn, String title, Genre genre, Author author) {
+        entityManager.persist(Book.builder()
+                .isbn(isbn)
+                .title(title)
+                .synopsis("A long synopsis that the listing should never read")
+                .genre(genre)
+                .publicationDate(LocalDate.of(2000, 1, 1))
+                .price(BigDecimal.TEN)
+                .stockQuantity(10)
+                .author(author)
+                .build());
+    }
+}
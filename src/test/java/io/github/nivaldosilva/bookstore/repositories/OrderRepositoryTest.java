@@ -0,0 +1,163 @@
+package io.github.nivaldosilva.bookstore.repositories;
+
+import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.entities.Customer;
+import io.github.nivaldosilva.bookstore.entities.Order;
+import io.github.nivaldosilva.bookstore.entities.OrderItem;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.github.nivaldosilva.bookstore.enums.OrderStatus;
+import io.github.nivaldosilva.bookstore.mappers.OrderMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("OrderRepository Tests")
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Customer customer;
+    private int bookSequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        customer = Customer.builder()
+                .fullName("John Doe")
+                .email("john.doe@example.com")
+                .password("encoded")
+                .build();
+        entityManager.persist(customer);
+    }
+
+    @Test
+    @DisplayName("Should render an order with one query regardless of its item count")
+    void shouldRenderOrderWithConstantQueryCount() {
+        UUID smallOrderId = persistOrder(1);
+        UUID largeOrderId = persistOrder(20);
+        entityManager.flush();
+        entityManager.clear();
+
+        long smallOrderQueries = queriesToRender(smallOrderId);
+        long largeOrderQueries = queriesToRender(largeOrderId);
+
+        assertEquals(1, smallOrderQueries);
+        assertEquals(smallOrderQueries, largeOrderQueries);
+    }
+
+    @Test
+    @DisplayName("Should list a page of orders with an id query, a count and one fetch-joined load")
+    void shouldListOrderPageInTwoPhases() {
+        UUID first = persistOrder(1);
+        UUID second = persistOrder(5);
+        persistOrder(10);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Specification<Order> pending = (root, query, cb) -> cb.equal(root.get("status"), OrderStatus.PENDING);
+        Page<UUID> ids = orderRepository.findIds(pending, PageRequest.of(0, 2, Sort.by("totalAmount")));
+        List<OrderResponse> responses = orderRepository.findWithDetailsByIdIn(ids.getContent()).stream()
+                .map(OrderMapper::toResponse)
+                .toList();
+
+        assertEquals(List.of(first, second), ids.getContent());
+        assertEquals(3, ids.getTotalElements());
+        assertEquals(6, responses.stream().mapToInt(response -> response.items().size()).sum());
+        assertTrue(responses.stream()
+                .flatMap(response -> response.items().stream())
+                .allMatch(item -> item.bookAuthorName() != null));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should assign increasing version 7 ids to persisted entities")
+    void shouldAssignTimeOrderedIds() {
+        UUID first = persistOrder(2);
+        UUID second = persistOrder(2);
+        Order order = orderRepository.findById(second).orElseThrow();
+
+        assertEquals(7, customer.getId().version());
+        assertEquals(7, first.version());
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(order.getItems().stream().allMatch(item -> item.getId().version() == 7
+                && item.getBook().getId().version() == 7
+                && item.getBook().getAuthor().getId().version() == 7));
+    }
+
+    private long queriesToRender(UUID orderId) {
+        statistics.clear();
+        Order order = orderRepository.findWithDetailsById(orderId).orElseThrow();
+        OrderResponse response = OrderMapper.toResponse(order);
+        assertEquals(customer.getEmail(), response.customerEmail());
+        assertTrue(response.items().stream().allMatch(item -> item.bookAuthorName() != null));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UUID persistOrder(int itemCount) {
+        Order order = Order.builder()
+                .customer(customer)
+                .status(OrderStatus.PENDING)
+                .totalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(itemCount)))
+                .build();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItem.builder()
+                    .order(order)
+                    .book(persistBook())
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .totalPrice(BigDecimal.TEN)
+                    .build());
+        }
+        order.setItems(items);
+        entityManager.persist(order);
+        return order.getId();
+    }
+
+    private Book persistBook() {
+        int sequence = ++bookSequence;
+        Author author = Author.builder()
+                .name("Author " + sequence)
+                .nationality("Brazilian")
+                .birthDate(LocalDate.of(1970, 1, 1))
+                .build();
+        entityManager.persist(author);
+        Book book = Book.builder()
+                .isbn(String.format("978-%010d", sequence))
+                .title("Book " + sequence)
+                .genre(Genre.FICTION)
+                .publicationDate(LocalDate.of(2000, 1, 1))
+                .price(BigDecimal.TEN)
+                .stockQuantity(10)
+                .author(author)
+                .build();
+        entityManager.persist(book);
+        return book;
+    }
+}
@@ -7,6 +7,9 @@ import io.github.nivaldosilva.bookstore.exceptions.AuthorNameAlreadyExistsExcept
 import io.github.nivaldosilva.bookstore.exceptions.AuthorNotFoundException;
 import io.github.nivaldosilva.bookstore.mappers.AuthorMapper;
 import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,12 +17,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +41,24 @@ class AuthorServiceImplTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private UniquenessFilters uniquenessFilters;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private BookCountCache bookCountCache;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private AuthorServiceImpl authorService;
 
@@ -39,6 +69,8 @@ class AuthorServiceImplTest {
     @BeforeEach
     void setUp() {
         authorId = UUID.randomUUID();
+        lenient().when(uniquenessFilters.exists(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Predicate<String>>getArgument(2).test(invocation.getArgument(1)));
         authorRequest = AuthorRequest.builder()
                 .name("J.K. Rowling")
                 .biography("Author of Harry Potter series")
@@ -54,6 +86,37 @@ class AuthorServiceImplTest {
                 .build();
     }
 
+    @Test
+    @DisplayName("Should export every author and clear the persistence context once per chunk")
+    void shouldExportAuthorsInChunks() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Author> authors = IntStream.range(0, ExportStreams.CHUNK_SIZE + 1)
+                .mapToObj(i -> author)
+                .onClose(() -> closed.set(true));
+        when(authorRepository.streamAll()).thenReturn(authors);
+        List<AuthorResponse> exported = new ArrayList<>();
+
+        authorService.exportAuthors(exported::add);
+
+        assertEquals(ExportStreams.CHUNK_SIZE + 1, exported.size());
+        assertEquals(author.getName(), exported.get(0).name());
+        assertTrue(closed.get());
+        verify(entityManager, times(1)).clear();
+        verify(authorRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should close the author stream when the consumer fails")
+    void shouldCloseAuthorStreamWhenConsumerFails() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(authorRepository.streamAll()).thenReturn(Stream.of(author).onClose(() -> closed.set(true)));
+
+        assertThrows(UncheckedIOException.class, () -> authorService.exportAuthors(response -> {
+            throw new UncheckedIOException(new IOException("client disconnected"));
+        }));
+        assertTrue(closed.get());
+    }
+
     @Test
     @DisplayName("Should create author successfully")
     void shouldCreateAuthorSuccessfully() {
@@ -75,6 +138,19 @@ class AuthorServiceImplTest {
         verify(authorRepository, never()).save(any(Author.class));
     }
 
+    @Test
+    @DisplayName("Should report a conflict when the name index rejects an author the filter let through")
+    void shouldTranslateNameConstraintViolation() {
+        doReturn(false).when(uniquenessFilters).exists(eq(UniquenessFilters.Key.AUTHOR_NAME), eq(authorRequest.name()), any());
+        when(authorRepository.save(any(Author.class))).thenReturn(author);
+        doThrow(new DataIntegrityViolationException("idx_authors_name")).when(authorRepository).flush();
+
+        assertThrows(AuthorNameAlreadyExistsException.class, () -> authorService.createAuthor(authorRequest));
+
+        verify(authorRepository, never()).existsByName(any());
+        verify(uniquenessFilters, never()).add(any(), any());
+    }
+
     @Test
     @DisplayName("Should find author by ID successfully")
     void shouldFindAuthorByIdSuccessfully() {
@@ -146,6 +222,25 @@ class AuthorServiceImplTest {
         assertEquals(updateRequest.name(), result.name());
         verify(authorRepository).findById(authorId);       
         verify(authorRepository).save(any(Author.class));
+        verify(bookRepository, never()).touchByAuthor(any());
+    }
+
+    @Test
+    @DisplayName("Should refresh the timestamps of the author's books on rename")
+    void shouldTouchBooksWhenAuthorIsRenamed() {
+        AuthorRequest renameRequest = AuthorRequest.builder()
+                .name("Robert Galbraith")
+                .nationality("British")
+                .birthDate(LocalDate.of(1965, 7, 31))
+                .build();
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(authorRepository.existsByName(renameRequest.name())).thenReturn(false);
+        when(authorRepository.save(any(Author.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AuthorResponse result = authorService.updateAuthor(authorId, renameRequest);
+
+        assertEquals("Robert Galbraith", result.name());
+        verify(bookRepository).touchByAuthor(authorId);
     }
 
     @Test
@@ -177,10 +272,15 @@ class AuthorServiceImplTest {
     @Test
     @DisplayName("Should delete author successfully")
     void shouldDeleteAuthorSuccessfully() {
+        UUID bookId = UUID.randomUUID();
         when(authorRepository.existsById(authorId)).thenReturn(true);
+        when(bookRepository.findIdsByAuthorId(authorId)).thenReturn(List.of(bookId));
         authorService.deleteAuthor(authorId);
         verify(authorRepository).existsById(authorId);
+        verify(stockLedger).untrack(bookId);
         verify(authorRepository).deleteById(authorId);
+        verify(bookCountCache).invalidate();
+        verify(bookCache).clearIsbnIndex();
     }
 
     @Test
@@ -190,5 +290,6 @@ class AuthorServiceImplTest {
         assertThrows(AuthorNotFoundException.class, () -> authorService.deleteAuthor(authorId));
         verify(authorRepository).existsById(authorId);
         verify(authorRepository, never()).deleteById(any());
+        verify(stockLedger, never()).untrack(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.BookCountCacheProperties;
+import io.github.nivaldosilva.bookstore.config.UniquenessFilterProperties;
+import io.github.nivaldosilva.bookstore.dtos.response.BookImportResponse;
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.github.nivaldosilva.bookstore.enums.ImportFormat;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BookImportService H2 Tests")
+class BookImportServiceImplDataJpaTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(Author.builder()
+                .name("José de Alencar")
+                .nationality("Brasileiro")
+                .birthDate(LocalDate.of(1829, 5, 1))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should recheck and retry a chunk when the unique index rejects an ISBN taken after the check")
+    void shouldRetryChunkAfterConcurrentIsbnConflict() {
+        bookRepository.save(Book.builder()
+                .isbn("9780000000026")
+                .title("O Guarani")
+                .genre(Genre.FICTION)
+                .publicationDate(LocalDate.of(1857, 1, 1))
+                .price(BigDecimal.TEN)
+                .stockQuantity(1)
+                .author(author)
+                .build());
+        String csv = "isbn,title,synopsis,genre,publicationDate,price,stockQuantity,authorId\n"
+                + "9780000000019,Iracema,Sinopse,FICTION,1865-01-01,39.90,10," + author.getId() + "\n"
+                + "9780000000026,O Guarani,Sinopse,FICTION,1857-01-01,39.90,10," + author.getId() + "\n";
+
+        BookImportResponse result = service(missingFirstIsbnCheck()).importBooks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.rejected());
+        assertEquals("9780000000026", result.errors().get(0).isbn());
+        assertEquals("Livro com este ISBN já existe.", result.errors().get(0).message());
+        assertEquals(2, bookRepository.count());
+    }
+
+    // The real repository, except that the first ISBN check misses, as if the book were inserted
+    // by another request right after it.
+    private BookRepository missingFirstIsbnCheck() {
+        AtomicBoolean checked = new AtomicBoolean();
+        return (BookRepository) Proxy.newProxyInstance(BookRepository.class.getClassLoader(),
+                new Class<?>[] { BookRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findExistingIsbns") && !checked.getAndSet(true)) {
+                        return Set.of();
+                    }
+                    try {
+                        return method.invoke(bookRepository, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    private BookImportServiceImpl service(BookRepository books) {
+        return new BookImportServiceImpl(books, authorRepository,
+                new BookCountCache(new BookCountCacheProperties(Duration.ofMinutes(10), 1000)),
+                new BookCache(new ConcurrentMapCacheManager(), mock(SingleFlight.class)),
+                new UniquenessFilters(books, mock(CustomerRepository.class), authorRepository, transactionManager,
+                        new UniquenessFilterProperties(true, 1000, 0.01, Duration.ofHours(1))),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), entityManager, transactionManager);
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.BookCountCacheProperties;
+import io.github.nivaldosilva.bookstore.config.UniquenessFilterProperties;
+import io.github.nivaldosilva.bookstore.dtos.response.BookImportResponse;
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.ImportFormat;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookImportService Tests")
+class BookImportServiceImplTest {
+
+    private static final String CSV_HEADER = "isbn,title,synopsis,genre,publicationDate,price,stockQuantity,authorId\n";
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Book>> savedBooks;
+
+    private BookCountCache bookCountCache;
+    private BookImportServiceImpl bookImportService;
+    private UUID authorId;
+
+    @BeforeEach
+    void setUp() {
+        authorId = UUID.randomUUID();
+        bookCountCache = spy(new BookCountCache(
+                new BookCountCacheProperties(Duration.ofMinutes(10), 1000)));
+        bookImportService = new BookImportServiceImpl(bookRepository, authorRepository, bookCountCache,
+                new BookCache(new ConcurrentMapCacheManager(), mock(SingleFlight.class)),
+                new UniquenessFilters(bookRepository, mock(CustomerRepository.class), authorRepository, transactionManager,
+                        new UniquenessFilterProperties(true, 1000, 0.01, Duration.ofHours(1))),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), entityManager, transactionManager);
+
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(authorRepository.getReferenceById(any())).thenAnswer(invocation ->
+                Author.builder().id(invocation.getArgument(0)).build());
+        lenient().when(authorRepository.findExistingIds(anyCollection())).thenReturn(Set.of(authorId));
+        lenient().when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+    }
+
+    @Test
+    @DisplayName("Should import valid CSV rows in one batch and report the rejected ones")
+    void shouldImportCsvAndReportRejectedRows() {
+        UUID unknownAuthor = UUID.randomUUID();
+        String csv = CSV_HEADER
+                + csvRow(isbn(1), "Dom Casmurro", authorId)
+                + csvRow(isbn(2), "Memórias Póstumas", unknownAuthor)
+                + isbn(3) + ",Quincas Borba,\"Sinopse, com vírgula\",FICTION,1891-01-01,abc,5," + authorId + "\n"
+                + isbn(4) + ",,Sinopse,FICTION,1891-01-01,10.00,5," + authorId + "\n";
+
+        BookImportResponse result = bookImportService.importBooks(stream(csv), ImportFormat.CSV);
+
+        assertEquals(4, result.received());
+        assertEquals(1, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(List.of(2L, 3L, 4L), result.errors().stream().map(BookImportResponse.RowError::row).sorted().toList());
+        assertTrue(result.errors().stream().anyMatch(error -> error.message().equals("Autor não encontrado.")));
+        assertTrue(result.errors().stream().anyMatch(error -> error.message().contains("'price'")));
+        assertTrue(result.errors().stream().anyMatch(error -> error.message().startsWith("title:")));
+        assertEquals(List.of("Dom Casmurro"), savedBooks().stream().map(Book::getTitle).toList());
+        verify(session).setJdbcBatchSize(BookImportServiceImpl.CHUNK_SIZE);
+        verify(bookCountCache).invalidate();
+    }
+
+    @Test
+    @DisplayName("Should reject NDJSON rows that repeat an ISBN, already exist or are not JSON")
+    void shouldRejectDuplicatedExistingAndMalformedNdjsonRows() {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of(isbn(2)));
+        String ndjson = jsonRow(isbn(1), authorId) + "\n"
+                + jsonRow(isbn(1), authorId) + "\n"
+                + "\n"
+                + jsonRow(isbn(2), authorId) + "\n"
+                + "{not json\n";
+
+        BookImportResponse result = bookImportService.importBooks(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(4, result.received());
+        assertEquals(1, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(List.of("ISBN repetido no arquivo.", "Livro com este ISBN já existe.", "JSON inválido."),
+                result.errors().stream().sorted((a, b) -> Long.compare(a.row(), b.row()))
+                        .map(BookImportResponse.RowError::message).toList());
+        assertEquals(List.of(2L, 4L, 5L), result.errors().stream().map(BookImportResponse.RowError::row).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Should resolve authors and ISBNs with one query per chunk")
+    void shouldUseSetBasedLookupsPerChunk() {
+        int rows = BookImportServiceImpl.CHUNK_SIZE + 1;
+        String csv = CSV_HEADER + IntStream.rangeClosed(1, rows)
+                .mapToObj(i -> csvRow(isbn(i), "Livro " + i, authorId))
+                .collect(Collectors.joining());
+
+        BookImportResponse result = bookImportService.importBooks(stream(csv), ImportFormat.CSV);
+
+        assertEquals(rows, result.imported());
+        verify(bookRepository, times(2)).findExistingIsbns(anyCollection());
+        verify(authorRepository, times(2)).findExistingIds(anyCollection());
+        verify(bookRepository, times(2)).saveAll(anyCollection());
+        verify(bookRepository, never()).existsByIsbn(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Should stop at a structurally broken CSV line and report the rows imported before it")
+    void shouldReportRowsImportedBeforeBrokenCsvLine() {
+        String csv = CSV_HEADER + csvRow(isbn(1), "Iracema", authorId)
+                + isbn(2) + ",\"Título sem fim,Sinopse,FICTION,1900-01-01,10.00,1," + authorId + "\n";
+
+        BookImportResponse result = bookImportService.importBooks(stream(csv), ImportFormat.CSV);
+
+        assertEquals(1, result.received());
+        assertEquals(1, result.imported());
+        assertTrue(result.error().startsWith("Arquivo CSV inválido na linha"));
+        assertEquals(List.of("Iracema"), savedBooks().stream().map(Book::getTitle).toList());
+        verify(bookCountCache).invalidate();
+    }
+
+    @Test
+    @DisplayName("Should invalidate counts of committed chunks when the import fails midway")
+    void shouldInvalidateCountsWhenImportFails() {
+        int rows = BookImportServiceImpl.CHUNK_SIZE + 1;
+        String csv = CSV_HEADER + IntStream.rangeClosed(1, rows)
+                .mapToObj(i -> csvRow(isbn(i), "Livro " + i, authorId))
+                .collect(Collectors.joining());
+        when(authorRepository.findExistingIds(anyCollection()))
+                .thenReturn(Set.of(authorId))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> bookImportService.importBooks(stream(csv), ImportFormat.CSV));
+        verify(bookCountCache).invalidate();
+    }
+
+    private List<Book> savedBooks() {
+        verify(bookRepository).saveAll(savedBooks.capture());
+        return savedBooks.getValue();
+    }
+
+    private static String csvRow(String isbn, String title, UUID authorId) {
+        return isbn + "," + title + ",Sinopse,FICTION,1899-01-01,39.90,10," + authorId + "\n";
+    }
+
+    private static String jsonRow(String isbn, UUID authorId) {
+        return "{\"isbn\":\"" + isbn + "\",\"title\":\"Livro\",\"synopsis\":\"Sinopse\",\"genre\":\"FICTION\","
+                + "\"publicationDate\":\"1899-01-01\",\"price\":39.90,\"stockQuantity\":10,\"authorId\":\"" + authorId + "\"}";
+    }
+
+    // Builds a valid ISBN-13 in the 978 prefix for the given sequence number.
+    private static String isbn(int sequence) {
+        String digits = "978" + String.format("%09d", sequence);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,35 +1,62 @@
 package io.github.nivaldosilva.bookstore.services.usecases;
 
+import io.github.nivaldosilva.bookstore.config.BookCountCacheProperties;
+import io.github.nivaldosilva.bookstore.config.SingleFlightProperties;
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.ListingVersion;
 import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.BookRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.BookResponse;
 import io.github.nivaldosilva.bookstore.entities.Author;
 import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.CountMode;
 import io.github.nivaldosilva.bookstore.enums.Genre;
 import io.github.nivaldosilva.bookstore.exceptions.AuthorNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.BookNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.IsbnAlreadyExistsException;
+import io.github.nivaldosilva.bookstore.exceptions.StockLedgerDisabledException;
+import io.github.nivaldosilva.bookstore.mappers.CursorMapper;
 import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
 import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookSummaryRepository.BookSummary;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -44,11 +71,31 @@ class BookServiceImplTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private UniquenessFilters uniquenessFilters;
+
+    @Spy
+    private BookCountCache bookCountCache = new BookCountCache(
+            new BookCountCacheProperties(Duration.ofMinutes(10), 1000));
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties(true, Duration.ofSeconds(5), null));
+
+    @Spy
+    private BookCache bookCache = new BookCache(new ConcurrentMapCacheManager(), singleFlight);
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
     private Author author;
     private Book book;
+    private BookSummary bookSummary;
     private BookRequest bookRequest;
     private UUID authorId;
     private UUID bookId;
@@ -57,6 +104,9 @@ class BookServiceImplTest {
     void setUp() {
         authorId = UUID.randomUUID();
         bookId = UUID.randomUUID();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(uniquenessFilters.exists(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Predicate<String>>getArgument(2).test(invocation.getArgument(1)));
 
         author = Author.builder()
                 .id(authorId)
@@ -82,6 +132,10 @@ class BookServiceImplTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
+        bookSummary = new BookSummary(bookId, book.getIsbn(), book.getTitle(), book.getGenre(),
+                book.getPublicationDate(), book.getPrice(), book.getStockQuantity(), authorId, author.getName(),
+                book.getCreatedAt(), book.getUpdatedAt());
+
         bookRequest = BookRequest.builder()
                 .isbn("978-0545010221")
                 .title("Harry Potter and the Philosopher's Stone")
@@ -131,6 +185,21 @@ class BookServiceImplTest {
         verify(bookRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should report a conflict when the ISBN index rejects a book the filter let through")
+    void shouldTranslateIsbnConstraintViolation() {
+        doReturn(false).when(uniquenessFilters).exists(eq(UniquenessFilters.Key.ISBN), eq(bookRequest.isbn()), any());
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        doThrow(new DataIntegrityViolationException("uk_books_isbn")).when(bookRepository).flush();
+
+        assertThrows(IsbnAlreadyExistsException.class, () -> bookService.createBook(bookRequest));
+
+        verify(bookRepository, never()).existsByIsbn(any());
+        verify(uniquenessFilters, never()).add(any(), any());
+        verify(bookCountCache, never()).invalidate();
+    }
+
     @Test
     @DisplayName("Should throw AuthorNotFoundException when author not found")
     void shouldThrowAuthorNotFoundExceptionWhenAuthorNotFound() {
@@ -181,22 +250,25 @@ class BookServiceImplTest {
     void shouldFindAllBooksWithPagination() {
        
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, false);
 
-        when(bookRepository.findAll(ArgumentMatchers.<Specification<Book>>any(), eq(pageable))).thenReturn(bookPage);
+        when(bookRepository.findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable))).thenReturn(bookSlice);
 
        
-        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, null);
+        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, null, CountMode.EXACT);
 
        
         assertNotNull(result);
         assertEquals(1, result.content().size());
+        assertEquals(book.getTitle(), result.content().get(0).title());
+        assertEquals(author.getName(), result.content().get(0).authorName());
+        assertNull(result.content().get(0).synopsis());
         assertEquals(1, result.totalElements());
         assertEquals(0, result.pageNumber());
         assertTrue(result.first());
         assertTrue(result.last());
 
-        verify(bookRepository).findAll(ArgumentMatchers.<Specification<Book>>any(), eq(pageable));
+        verify(bookRepository).findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable));
     }
 
     @Test
@@ -204,19 +276,19 @@ class BookServiceImplTest {
     void shouldFindBooksFilteredByGenre() {
         
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, false);
 
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(bookPage);
+        when(bookRepository.findSummaries(any(Specification.class), eq(pageable))).thenReturn(bookSlice);
 
        
-        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, Genre.FANTASY, null);
+        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, Genre.FANTASY, null, CountMode.EXACT);
 
         
         assertNotNull(result);
         assertEquals(1, result.content().size());
         assertEquals(Genre.FANTASY, result.content().get(0).genre());
 
-        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
+        verify(bookRepository).findSummaries(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -224,19 +296,19 @@ class BookServiceImplTest {
     void shouldFindBooksFilteredByAuthor() {
         
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, false);
 
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(bookPage);
+        when(bookRepository.findSummaries(any(Specification.class), eq(pageable))).thenReturn(bookSlice);
 
        
-        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, authorId);
+        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, authorId, CountMode.EXACT);
 
         
         assertNotNull(result);
         assertEquals(1, result.content().size());
         assertEquals(authorId, result.content().get(0).authorId());
 
-        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
+        verify(bookRepository).findSummaries(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -244,12 +316,12 @@ class BookServiceImplTest {
     void shouldFindBooksFilteredByGenreAndAuthor() {
         
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, false);
 
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(bookPage);
+        when(bookRepository.findSummaries(any(Specification.class), eq(pageable))).thenReturn(bookSlice);
 
        
-        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, Genre.FANTASY, authorId);
+        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, Genre.FANTASY, authorId, CountMode.EXACT);
 
        
         assertNotNull(result);
@@ -257,7 +329,7 @@ class BookServiceImplTest {
         assertEquals(Genre.FANTASY, result.content().get(0).genre());
         assertEquals(authorId, result.content().get(0).authorId());
 
-        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
+        verify(bookRepository).findSummaries(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -265,12 +337,12 @@ class BookServiceImplTest {
     void shouldReturnEmptyPageWhenNoBooksFound() {
        
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> emptyPage = new PageImpl<>(List.of(), pageable, 0);
+        Slice<BookSummary> emptySlice = new SliceImpl<>(List.of(), pageable, false);
 
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(emptyPage);
+        when(bookRepository.findSummaries(any(Specification.class), eq(pageable))).thenReturn(emptySlice);
 
        
-        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, null);
+        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, null, CountMode.EXACT);
 
         
         assertNotNull(result);
@@ -279,7 +351,7 @@ class BookServiceImplTest {
         assertTrue(result.first());
         assertTrue(result.last());
 
-        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
+        verify(bookRepository).findSummaries(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -513,4 +585,351 @@ class BookServiceImplTest {
         verify(bookRepository).existsById(bookId);
         verify(bookRepository, never()).deleteById(bookId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should enable stock ledger with the current stock of the book")
+    void shouldEnableStockLedgerSuccessfully() {
+        // Given
+        when(stockLedger.isEnabled()).thenReturn(true);
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
+
+        // When
+        bookService.enableStockLedger(bookId);
+
+        // Then
+        verify(stockLedger).track(bookId, book.getStockQuantity());
+    }
+
+    @Test
+    @DisplayName("Should throw BookNotFoundException when enabling stock ledger for non-existing book")
+    void shouldThrowBookNotFoundExceptionWhenEnablingStockLedger() {
+        // Given
+        when(stockLedger.isEnabled()).thenReturn(true);
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(BookNotFoundException.class, () -> bookService.enableStockLedger(bookId));
+
+        verify(stockLedger, never()).track(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should refuse to track a book when the stock ledger is disabled")
+    void shouldThrowStockLedgerDisabledExceptionWhenLedgerIsOff() {
+        // Given
+        when(stockLedger.isEnabled()).thenReturn(false);
+
+        // When & Then
+        assertThrows(StockLedgerDisabledException.class, () -> bookService.enableStockLedger(bookId));
+
+        verify(bookRepository, never()).findByIdForUpdate(any());
+        verify(stockLedger, never()).track(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should re-track a ledger book with the updated stock")
+    void shouldRetrackLedgerBookWhenUpdating() {
+        // Given
+        BookRequest updateRequest = new BookRequest(null, book.getIsbn(), book.getTitle(), book.getSynopsis(),
+                book.getGenre(), book.getPublicationDate(), book.getPrice(), 500, authorId);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(stockLedger.isTracked(bookId)).thenReturn(true);
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        bookService.updateBook(bookId, updateRequest);
+
+        // Then
+        InOrder inOrder = inOrder(stockLedger, bookRepository);
+        inOrder.verify(stockLedger).untrack(bookId);
+        inOrder.verify(bookRepository).save(book);
+        inOrder.verify(stockLedger).track(bookId, 500);
+    }
+
+    @Test
+    @DisplayName("Should scroll books and return a cursor for the next window")
+    void shouldScrollBooksWithNextCursor() {
+        // Given
+        Sort sort = Sort.by(Sort.Direction.ASC, "title");
+        Window<Book> window = Window.from(List.of(book),
+                index -> ScrollPosition.forward(Map.of("title", book.getTitle(), "id", book.getId())), true);
+        when(bookRepository.scroll(ArgumentMatchers.<Specification<Book>>any(), any(KeysetScrollPosition.class),
+                eq(sort.and(Sort.by("id"))), eq(1))).thenReturn(window);
+
+        // When
+        CursorPagedResponse<BookResponse> result = bookService.scrollBooks(null, 1, sort, null, null);
+
+        // Then
+        assertEquals(1, result.content().size());
+        assertFalse(result.last());
+        assertNotNull(result.nextCursor());
+        KeysetScrollPosition next = CursorMapper.toPosition(result.nextCursor(), Book.class, Set.of("title", "id"));
+        assertEquals(book.getTitle(), next.getKeys().get("title"));
+        assertEquals(book.getId(), next.getKeys().get("id"));
+    }
+
+    @Test
+    @DisplayName("Should return no cursor on the last window")
+    void shouldReturnNoCursorOnLastWindow() {
+        // Given
+        Sort sort = Sort.by(Sort.Direction.ASC, "title");
+        String cursor = CursorMapper.toCursor(ScrollPosition.forward(Map.of("title", "A", "id", UUID.randomUUID())));
+        Window<Book> window = Window.from(List.of(book), index -> ScrollPosition.keyset(), false);
+        when(bookRepository.scroll(ArgumentMatchers.<Specification<Book>>any(),
+                argThat(position -> "A".equals(position.getKeys().get("title"))), any(Sort.class), eq(10)))
+                .thenReturn(window);
+
+        // When
+        CursorPagedResponse<BookResponse> result = bookService.scrollBooks(cursor, 10, sort, Genre.FANTASY, authorId);
+
+        // Then
+        assertTrue(result.last());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for a cursor built with another sort")
+    void shouldThrowIllegalArgumentExceptionForMismatchedCursor() {
+        // Given
+        String cursor = CursorMapper.toCursor(ScrollPosition.forward(Map.of("price", BigDecimal.TEN, "id", bookId)));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.scrollBooks(cursor, 10, Sort.by("title"), null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.scrollBooks("not-a-cursor", 10, Sort.by("title"), null, null));
+        verify(bookRepository, never()).scroll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject scroll sizes outside 1 to 100")
+    void shouldRejectInvalidScrollSize() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bookService.scrollBooks(null, 0, Sort.by("title"), null, null));
+        assertThrows(IllegalArgumentException.class, () -> bookService.scrollBooks(null, 101, Sort.by("title"), null, null));
+        verify(bookRepository, never()).scroll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reuse the cached estimate for the same filter")
+    void shouldReuseCachedEstimateForSameFilter() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, true);
+        when(bookRepository.findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable))).thenReturn(bookSlice);
+        when(bookRepository.findListingVersion(ArgumentMatchers.<Specification<Book>>any()))
+                .thenReturn(new ListingVersion(null, 25L));
+
+        // When
+        PagedResponse<BookResponse> first = bookService.findAllBooks(pageable, Genre.FANTASY, null, CountMode.ESTIMATE);
+        PagedResponse<BookResponse> second = bookService.findAllBooks(pageable, Genre.FANTASY, null, CountMode.ESTIMATE);
+
+        // Then
+        assertEquals(25, first.totalElements());
+        assertEquals(25, first.totalPages());
+        assertEquals(25, second.totalElements());
+        verify(bookRepository, times(1)).findListingVersion(ArgumentMatchers.<Specification<Book>>any());
+        verify(bookRepository, never()).count(ArgumentMatchers.<Specification<Book>>any());
+    }
+
+    @Test
+    @DisplayName("Should always count exact totals and drop cached estimates after a book is created")
+    void shouldCountExactTotalsAndRefreshEstimatesAfterCreate() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, true);
+        when(bookRepository.findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable))).thenReturn(bookSlice);
+        when(bookRepository.findListingVersion(ArgumentMatchers.<Specification<Book>>any()))
+                .thenReturn(new ListingVersion(null, 25L), new ListingVersion(null, 27L));
+        when(bookRepository.count(ArgumentMatchers.<Specification<Book>>any())).thenReturn(26L);
+        when(bookRepository.existsByIsbn(bookRequest.isbn())).thenReturn(false);
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(bookRepository.save(any(Book.class))).thenReturn(book);
+
+        // When
+        PagedResponse<BookResponse> estimate = bookService.findAllBooks(pageable, null, null, CountMode.ESTIMATE);
+        PagedResponse<BookResponse> exact = bookService.findAllBooks(pageable, null, null, CountMode.EXACT);
+        bookService.createBook(bookRequest);
+        PagedResponse<BookResponse> estimateAfterCreate = bookService.findAllBooks(pageable, null, null, CountMode.ESTIMATE);
+
+        // Then
+        assertEquals(25, estimate.totalElements());
+        assertEquals(26, exact.totalElements());
+        assertEquals(27, estimateAfterCreate.totalElements());
+        verify(bookRepository, times(1)).count(ArgumentMatchers.<Specification<Book>>any());
+        verify(bookRepository, times(2)).findListingVersion(ArgumentMatchers.<Specification<Book>>any());
+    }
+
+    @Test
+    @DisplayName("Should read listing versions fresh for EXACT, cached for ESTIMATE and never query for NONE")
+    void shouldReadListingVersionPerCountMode() {
+        // Given
+        ListingVersion cached = new ListingVersion(LocalDateTime.of(2024, 1, 1, 12, 0), 25L);
+        ListingVersion fresh = new ListingVersion(LocalDateTime.of(2024, 1, 1, 12, 5), 26L);
+        when(bookRepository.findListingVersion(ArgumentMatchers.<Specification<Book>>any()))
+                .thenReturn(cached, fresh, fresh);
+
+        // When & Then
+        assertNull(bookService.findListingVersion(Genre.FANTASY, null, CountMode.NONE));
+        assertEquals(cached, bookService.findListingVersion(Genre.FANTASY, null, CountMode.ESTIMATE));
+        assertEquals(cached, bookService.findListingVersion(Genre.FANTASY, null, CountMode.ESTIMATE));
+        assertEquals(cached, bookService.findListingVersion(Genre.FANTASY, null, CountMode.NONE));
+        assertEquals(fresh, bookService.findListingVersion(Genre.FANTASY, null, CountMode.EXACT));
+        assertEquals(fresh, bookService.findListingVersion(Genre.FANTASY, null, CountMode.EXACT));
+        assertNull(bookService.findListingVersion(Genre.HORROR, null, CountMode.NONE));
+        verify(bookRepository, times(3)).findListingVersion(ArgumentMatchers.<Specification<Book>>any());
+    }
+
+    @Test
+    @DisplayName("Should take the EXACT total from the listing version instead of counting again")
+    void shouldReuseListingVersionCountForExactTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, true);
+        when(bookRepository.findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable))).thenReturn(bookSlice);
+
+        // When
+        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, null, CountMode.EXACT,
+                new ListingVersion(LocalDateTime.of(2024, 1, 1, 12, 0), 40L));
+
+        // Then
+        assertEquals(40, result.totalElements());
+        verify(bookRepository, never()).count(ArgumentMatchers.<Specification<Book>>any());
+        verify(bookRepository, never()).findListingVersion(ArgumentMatchers.<Specification<Book>>any());
+    }
+
+    @Test
+    @DisplayName("Should skip the count query when count mode is NONE")
+    void shouldSkipCountWhenCountModeIsNone() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        Slice<BookSummary> bookSlice = new SliceImpl<>(List.of(bookSummary), pageable, true);
+        when(bookRepository.findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable))).thenReturn(bookSlice);
+
+        // When
+        PagedResponse<BookResponse> result = bookService.findAllBooks(pageable, null, null, CountMode.NONE);
+
+        // Then
+        assertNull(result.totalElements());
+        assertNull(result.totalPages());
+        assertFalse(result.last());
+        verify(bookRepository, never()).count(ArgumentMatchers.<Specification<Book>>any());
+    }
+
+    @Test
+    @DisplayName("Should run one query for concurrent identical listings")
+    void shouldCoalesceConcurrentListings() throws Exception {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable))).thenAnswer(invocation -> {
+            queried.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new SliceImpl<>(List.of(bookSummary), pageable, false);
+        });
+
+        // When
+        CompletableFuture<PagedResponse<BookResponse>> first = CompletableFuture
+                .supplyAsync(() -> bookService.findAllBooks(pageable, Genre.FANTASY, null, CountMode.NONE));
+        assertTrue(queried.await(5, TimeUnit.SECONDS));
+        AtomicReference<Thread> secondThread = new AtomicReference<>();
+        CompletableFuture<PagedResponse<BookResponse>> second = CompletableFuture.supplyAsync(() -> {
+            secondThread.set(Thread.currentThread());
+            return bookService.findAllBooks(pageable, Genre.FANTASY, null, CountMode.NONE);
+        });
+        // The second call has joined the first once it is parked waiting for it.
+        while (secondThread.get() == null || secondThread.get().getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(bookRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Book>>any(), eq(pageable));
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups by ID from the cache")
+    void shouldServeRepeatedFindByIdFromCache() {
+        // Given
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+
+        // When
+        BookResponse first = bookService.findBookById(bookId);
+        BookResponse second = bookService.findBookById(bookId);
+
+        // Then
+        assertEquals(first, second);
+        verify(bookRepository, times(1)).findById(bookId);
+    }
+
+    @Test
+    @DisplayName("Should resolve cached ISBN lookups through the cached book")
+    void shouldResolveIsbnLookupsThroughCachedBook() {
+        // Given
+        when(bookRepository.findIdByIsbn(book.getIsbn())).thenReturn(Optional.of(bookId));
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+
+        // When
+        BookResponse byIsbn = bookService.findBookByIsbn(book.getIsbn());
+        BookResponse byIsbnAgain = bookService.findBookByIsbn(book.getIsbn());
+        BookResponse byId = bookService.findBookById(bookId);
+
+        // Then
+        assertEquals(bookId, byIsbn.id());
+        assertEquals(byIsbn, byIsbnAgain);
+        assertEquals(byIsbn, byId);
+        verify(bookRepository, times(1)).findIdByIsbn(book.getIsbn());
+        verify(bookRepository, times(1)).findById(bookId);
+    }
+
+    @Test
+    @DisplayName("Should not trust an ISBN index entry whose book no longer has that ISBN")
+    void shouldDropStaleIsbnIndexEntry() {
+        // Given
+        String staleIsbn = "978-0545010222";
+        bookCache.index(staleIsbn, bookId);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.findIdByIsbn(staleIsbn)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(BookNotFoundException.class, () -> bookService.findBookByIsbn(staleIsbn));
+        assertNull(bookCache.getIdByIsbn(staleIsbn));
+        verify(bookRepository).findIdByIsbn(staleIsbn);
+    }
+
+    @Test
+    @DisplayName("Should throw BookNotFoundException when book not found by ISBN")
+    void shouldThrowBookNotFoundExceptionWhenBookNotFoundByIsbn() {
+        // Given
+        when(bookRepository.findIdByIsbn("000-0000000000")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(BookNotFoundException.class, () -> bookService.findBookByIsbn("000-0000000000"));
+    }
+
+    @Test
+    @DisplayName("Should evict cached book and old ISBN when updating")
+    void shouldEvictCachedBookWhenUpdating() {
+        // Given
+        String oldIsbn = book.getIsbn();
+        BookRequest updateRequest = new BookRequest(null, "978-0545010222", book.getTitle(), book.getSynopsis(),
+                book.getGenre(), book.getPublicationDate(), book.getPrice(), 7, authorId);
+        when(bookRepository.findIdByIsbn(oldIsbn)).thenReturn(Optional.of(bookId));
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookRepository.existsByIsbn(updateRequest.isbn())).thenReturn(false);
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        bookService.findBookByIsbn(oldIsbn);
+
+        // When
+        bookService.updateBook(bookId, updateRequest);
+        when(bookRepository.findIdByIsbn(oldIsbn)).thenReturn(Optional.empty());
+
+        // Then
+        assertEquals(7, bookService.findBookById(bookId).stockQuantity());
+        assertThrows(BookNotFoundException.class, () -> bookService.findBookByIsbn(oldIsbn));
+        verify(bookRepository, times(3)).findById(bookId);
+    }
+}
@@ -10,13 +10,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -30,7 +33,13 @@ class CustomerServiceImplTest {
     private CustomerRepository customerRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private UniquenessFilters uniquenessFilters;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private CustomerServiceImpl customerService;
@@ -57,22 +66,38 @@ class CustomerServiceImplTest {
                 .email("john.doe@example.com")
                 .password(encryptedPassword)
                 .build();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(uniquenessFilters.exists(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Predicate<String>>getArgument(2).test(invocation.getArgument(1)));
     }
 
     @Test
     @DisplayName("Should register customer successfully")
     void shouldRegisterCustomerSuccessfully() {
         when(customerRepository.existsByEmail(customerRequest.email())).thenReturn(false);
-        when(passwordEncoder.encode(rawPassword)).thenReturn(encryptedPassword);
+        when(passwordHasher.encode(rawPassword)).thenReturn(encryptedPassword);
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
         CustomerResponse result = customerService.registerCustomer(customerRequest);
         assertNotNull(result);
         assertEquals(customer.getEmail(), result.email());
         verify(customerRepository).existsByEmail(customerRequest.email());
-        verify(passwordEncoder).encode(rawPassword);
+        verify(passwordHasher).encode(rawPassword);
         verify(customerRepository).save(any(Customer.class));
     }
 
+    @Test
+    @DisplayName("Should hash the password before opening the registration transaction")
+    void shouldHashPasswordBeforeTransaction() {
+        when(customerRepository.existsByEmail(customerRequest.email())).thenReturn(false);
+        when(passwordHasher.encode(rawPassword)).thenReturn(encryptedPassword);
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        customerService.registerCustomer(customerRequest);
+        InOrder order = inOrder(passwordHasher, transactionManager, customerRepository);
+        order.verify(passwordHasher).encode(rawPassword);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(customerRepository).save(any(Customer.class));
+    }
+
     @Test
     @DisplayName("Should throw EmailAlreadyExistsException when email already exists")
     void shouldThrowEmailAlreadyExistsException() {
@@ -124,14 +149,16 @@ class CustomerServiceImplTest {
                 .build();
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
         when(customerRepository.existsByEmail(updateRequest.email())).thenReturn(false);
-        when(passwordEncoder.encode(updateRequest.password())).thenReturn(encryptedPassword);
+        when(passwordHasher.encode(updateRequest.password())).thenReturn("newEncryptedPassword");
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
         CustomerResponse result = customerService.updateCustomer(customerId, updateRequest);
         assertNotNull(result);
         assertEquals(updateRequest.email(), result.email());
-        verify(customerRepository).findById(customerId);
+        assertEquals("newEncryptedPassword", customer.getPassword());
+        verify(customerRepository, times(2)).findById(customerId);
         verify(customerRepository).existsByEmail(updateRequest.email());
-        verify(passwordEncoder).encode(updateRequest.password());
+        verify(passwordHasher).encode(updateRequest.password());
+        verify(passwordHasher, never()).verify(any(), any());
         verify(customerRepository).save(any(Customer.class));
     }
 
@@ -142,19 +169,102 @@ class CustomerServiceImplTest {
                 .fullName("Jane Doe")
                 .email(customer.getEmail())
                 .password(rawPassword)
+                .passwordUnchanged(true)
                 .build();
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(passwordEncoder.encode(updateRequest.password())).thenReturn(encryptedPassword);
+        when(passwordHasher.verify(rawPassword, encryptedPassword)).thenReturn(new PasswordHasher.Verification(true, null));
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
         CustomerResponse result = customerService.updateCustomer(customerId, updateRequest);
         assertNotNull(result);
         assertEquals(updateRequest.email(), result.email());
-        verify(customerRepository).findById(customerId);
+        assertEquals(encryptedPassword, customer.getPassword());
+        verify(customerRepository, times(2)).findById(customerId);
         verify(customerRepository, never()).existsByEmail(anyString());
-        verify(passwordEncoder).encode(updateRequest.password());
+        verify(passwordHasher, never()).encode(anyString());
         verify(customerRepository).save(any(Customer.class));
     }
 
+    @Test
+    @DisplayName("Should store the upgraded hash when the unchanged password was hashed with an older algorithm")
+    void shouldRehashUnchangedPasswordWhenUpgradeIsDue() {
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(passwordHasher.verify(rawPassword, encryptedPassword))
+                .thenReturn(new PasswordHasher.Verification(true, "{argon2}upgraded"));
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        customerService.updateCustomer(customerId, unchangedPasswordRequest());
+        assertEquals("{argon2}upgraded", customer.getPassword());
+        verify(passwordHasher, never()).encode(anyString());
+    }
+
+    @Test
+    @DisplayName("Should apply the update to the customer reloaded inside the transaction")
+    void shouldApplyUpdateToCustomerReloadedInTransaction() {
+        Customer current = Customer.builder()
+                .id(customerId)
+                .fullName("Johnny Doe")
+                .email(customer.getEmail())
+                .password(encryptedPassword)
+                .build();
+        CustomerRequest updateRequest = CustomerRequest.builder()
+                .fullName("Jane Doe")
+                .email(customer.getEmail())
+                .password(rawPassword)
+                .passwordUnchanged(true)
+                .build();
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer), Optional.of(current));
+        when(passwordHasher.verify(rawPassword, encryptedPassword)).thenReturn(new PasswordHasher.Verification(true, null));
+        when(customerRepository.save(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        CustomerResponse result = customerService.updateCustomer(customerId, updateRequest);
+        assertEquals("Jane Doe", result.fullName());
+        assertEquals("Jane Doe", current.getFullName());
+        assertEquals("John Doe", customer.getFullName());
+        verify(customerRepository).save(current);
+    }
+
+    @Test
+    @DisplayName("Should hash the password again when the stored hash changed after it was verified")
+    void shouldRehashWhenStoredPasswordChangedDuringUpdate() {
+        Customer changed = Customer.builder()
+                .id(customerId)
+                .fullName("John Doe")
+                .email(customer.getEmail())
+                .password("otherEncryptedPassword")
+                .build();
+        when(customerRepository.findById(customerId))
+                .thenReturn(Optional.of(customer), Optional.of(changed), Optional.of(changed));
+        when(passwordHasher.verify(rawPassword, encryptedPassword)).thenReturn(new PasswordHasher.Verification(true, null));
+        when(passwordHasher.encode(rawPassword)).thenReturn("newEncryptedPassword");
+        when(customerRepository.save(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        customerService.updateCustomer(customerId, unchangedPasswordRequest());
+        assertEquals("newEncryptedPassword", changed.getPassword());
+        verify(customerRepository, times(1)).save(any(Customer.class));
+    }
+
+    @Test
+    @DisplayName("Should hash a password flagged as unchanged when it does not match the stored one")
+    void shouldHashUnchangedPasswordThatDoesNotMatch() {
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(passwordHasher.verify(rawPassword, encryptedPassword)).thenReturn(new PasswordHasher.Verification(false, null));
+        when(passwordHasher.encode(rawPassword)).thenReturn("newEncryptedPassword");
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        customerService.updateCustomer(customerId, unchangedPasswordRequest());
+        assertEquals("newEncryptedPassword", customer.getPassword());
+    }
+
+    @Test
+    @DisplayName("Should keep the stored hash without hashing when the password is omitted")
+    void shouldKeepPasswordWhenOmitted() {
+        CustomerRequest updateRequest = CustomerRequest.builder()
+                .fullName("Jane Doe")
+                .email(customer.getEmail())
+                .build();
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        customerService.updateCustomer(customerId, updateRequest);
+        assertEquals(encryptedPassword, customer.getPassword());
+        verifyNoInteractions(passwordHasher);
+    }
+
     @Test
     @DisplayName("Should throw CustomerNotFoundException when updating non-existing customer")
     void shouldThrowCustomerNotFoundExceptionWhenUpdating() {
@@ -199,4 +309,13 @@ class CustomerServiceImplTest {
         verify(customerRepository).existsById(customerId);
         verify(customerRepository, never()).deleteById(any());
     }
+
+    private CustomerRequest unchangedPasswordRequest() {
+        return CustomerRequest.builder()
+                .fullName(customerRequest.fullName())
+                .email(customerRequest.email())
+                .password(rawPassword)
+                .passwordUnchanged(true)
+                .build();
+    }
 }
@@ -0,0 +1,247 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.IdempotencyProperties;
+import io.github.nivaldosilva.bookstore.dtos.request.OrderItemRequest;
+import io.github.nivaldosilva.bookstore.dtos.request.OrderRequest;
+import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
+import io.github.nivaldosilva.bookstore.enums.OrderStatus;
+import io.github.nivaldosilva.bookstore.exceptions.IdempotencyKeyReusedException;
+import io.github.nivaldosilva.bookstore.exceptions.IdempotentRequestInProgressException;
+import io.github.nivaldosilva.bookstore.exceptions.InsufficientStockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotentRequests Tests")
+class IdempotentRequestsTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private IdempotentRequests idempotentRequests;
+    private OrderRequest request;
+    private OrderResponse response;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotentRequests = new IdempotentRequests(objectMapper, (StringRedisTemplate) null, properties(false));
+        request = OrderRequest.builder()
+                .customerEmail("ana@example.com")
+                .items(List.of(new OrderItemRequest("9780306406157", 2)))
+                .build();
+        response = OrderResponse.builder()
+                .id(UUID.randomUUID())
+                .customerEmail("ana@example.com")
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("59.80"))
+                .build();
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response for a repeated key")
+    void shouldReplayRepeatedKey() {
+        IdempotentRequests.Result<OrderResponse> first = execute("key-1", request);
+        IdempotentRequests.Result<OrderResponse> second = execute("key-1", request);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertSame(first.value(), second.value());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should run concurrent duplicates once and share the response")
+    void shouldCoalesceConcurrentDuplicates() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentRequests.Result<OrderResponse>> first = CompletableFuture.supplyAsync(
+                () -> idempotentRequests.execute("key-1", request, OrderResponse.class, () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return response;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotentRequests.Result<OrderResponse>> duplicate = CompletableFuture
+                .supplyAsync(() -> execute("key-1", request));
+
+        release.countDown();
+
+        assertSame(response, first.get(5, TimeUnit.SECONDS).value());
+        assertSame(response, duplicate.get(5, TimeUnit.SECONDS).value());
+        assertTrue(duplicate.get().replayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different payload")
+    void shouldRejectReusedKey() {
+        execute("key-1", request);
+        OrderRequest other = OrderRequest.builder()
+                .customerEmail("bia@example.com")
+                .items(request.items())
+                .build();
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> execute("key-1", other));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should run again after a failed execution")
+    void shouldNotRememberFailures() {
+        assertThrows(InsufficientStockException.class, () -> idempotentRequests.execute("key-1", request,
+                OrderResponse.class, () -> {
+                    throw new InsufficientStockException("Sem estoque.");
+                }));
+
+        IdempotentRequests.Result<OrderResponse> retry = execute("key-1", request);
+
+        assertFalse(retry.replayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should reject blank and oversized keys")
+    void shouldRejectInvalidKeys() {
+        assertThrows(IllegalArgumentException.class, () -> execute(" ", request));
+        assertThrows(IllegalArgumentException.class, () -> execute("k".repeat(256), request));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should replay a response another node stored in Redis")
+    void shouldReplayRemoteResponse() throws Exception {
+        IdempotentRequests writer = remoteIdempotentRequests();
+        when(valueOperations.setIfAbsent(eq("bookstore:idempotency:key-1"), anyString(), any(Duration.class)))
+                .thenReturn(true, false);
+        writer.execute("key-1", request, OrderResponse.class, () -> response);
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("bookstore:idempotency:key-1"), stored.capture(), eq(Duration.ofHours(24)));
+        when(valueOperations.get("bookstore:idempotency:key-1")).thenReturn(stored.getValue());
+
+        IdempotentRequests.Result<OrderResponse> result = remoteIdempotentRequests().execute("key-1", request,
+                OrderResponse.class, () -> fail("should not run"));
+
+        assertTrue(result.replayed());
+        assertEquals(response, result.value());
+    }
+
+    @Test
+    @DisplayName("Should renew the in-flight marker while the request runs and stop once it is stored")
+    void shouldRenewInFlightMarkerWhileRunning() {
+        IdempotentRequests remote = remoteIdempotentRequests();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentRequests.Result<OrderResponse>> running = CompletableFuture.supplyAsync(
+                () -> remote.execute("key-1", request, OrderResponse.class, () -> {
+                    await(release);
+                    return response;
+                }));
+        ArgumentCaptor<String> marker = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations, timeout(5000)).setIfAbsent(eq("bookstore:idempotency:key-1"), marker.capture(),
+                eq(Duration.ofSeconds(30)));
+
+        remote.renewInFlight();
+        release.countDown();
+        running.join();
+        remote.renewInFlight();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("bookstore:idempotency:key-1")),
+                eq(marker.getValue()), eq("30000"));
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should answer 409 while another node is running the same key")
+    void shouldRejectRemoteInFlightKey() {
+        IdempotentRequests remote = remoteIdempotentRequests();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true, false);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> remote.execute("key-1", request, OrderResponse.class, () -> {
+            await(release);
+            return response;
+        }));
+        ArgumentCaptor<String> marker = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations, timeout(5000)).setIfAbsent(anyString(), marker.capture(), any(Duration.class));
+        when(valueOperations.get("bookstore:idempotency:key-1")).thenReturn(marker.getValue());
+
+        try {
+            assertThrows(IdempotentRequestInProgressException.class,
+                    () -> remoteIdempotentRequests().execute("key-1", request, OrderResponse.class, () -> response));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count executed, replayed and rejected requests")
+    void shouldCountRequests() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        idempotentRequests.bindTo(registry);
+
+        execute("key-1", request);
+        execute("key-1", request);
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> execute("key-1", OrderRequest.builder().customerEmail("bia@example.com").items(request.items()).build()));
+
+        assertEquals(1, registry.get("bookstore.idempotency.requests").tag("result", "executed").functionCounter().count());
+        assertEquals(1, registry.get("bookstore.idempotency.requests").tag("result", "replayed").functionCounter().count());
+        assertEquals(1, registry.get("bookstore.idempotency.requests").tag("result", "rejected").functionCounter().count());
+    }
+
+    private IdempotentRequests.Result<OrderResponse> execute(String key, OrderRequest orderRequest) {
+        return idempotentRequests.execute(key, orderRequest, OrderResponse.class, () -> {
+            executions.incrementAndGet();
+            return response;
+        });
+    }
+
+    private IdempotentRequests remoteIdempotentRequests() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        return new IdempotentRequests(objectMapper, redisTemplate, properties(true));
+    }
+
+    private static IdempotencyProperties properties(boolean remoteEnabled) {
+        return new IdempotencyProperties(true, Duration.ofHours(24), 100, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofSeconds(10), remoteEnabled, "bookstore:idempotency:");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.CacheConfig;
+import io.github.nivaldosilva.bookstore.config.OrderPipelineProperties;
+import io.github.nivaldosilva.bookstore.entities.OrderOutboxEvent;
+import io.github.nivaldosilva.bookstore.enums.OrderEventType;
+import io.github.nivaldosilva.bookstore.enums.OrderStatus;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderItemRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderOutboxRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderRepository;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderOutboxDispatcher Tests")
+class OrderOutboxDispatcherTest {
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private OrderOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS);
+        dispatcher = new OrderOutboxDispatcher(outboxRepository, orderRepository,
+                new StockReturns(orderItemRepository, bookRepository, stockLedger, bookCache), cacheManager,
+                transactionManager,
+                new OrderPipelineProperties(Duration.ofSeconds(1), 3, 2));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should move placed orders to processing in one update and delete the batch")
+    void shouldStartProcessingPlacedOrders() {
+        OrderOutboxEvent first = event(OrderEventType.PLACED);
+        OrderOutboxEvent second = event(OrderEventType.PLACED);
+        UUID customerId = UUID.randomUUID();
+        cacheManager.getCache(CacheConfig.CUSTOMERS).put(customerId, "cached customer");
+        when(outboxRepository.lockNextBatch(2, Limit.of(3))).thenReturn(List.of(first, second));
+        when(orderRepository.findCustomerIds(List.of(first.getOrderId(), second.getOrderId())))
+                .thenReturn(Set.of(customerId));
+
+        dispatcher.dispatch();
+
+        verify(orderRepository).transitionStatus(List.of(first.getOrderId(), second.getOrderId()),
+                OrderStatus.PENDING, OrderStatus.PROCESSING);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(first.getId(), second.getId()));
+        verify(orderItemRepository, never()).sumQuantitiesByBook(any());
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS).get(customerId));
+    }
+
+    @Test
+    @DisplayName("Should return stock of cancelled and returned orders once per book")
+    void shouldReturnStockPerBook() {
+        OrderOutboxEvent cancelled = event(OrderEventType.CANCELLED);
+        OrderOutboxEvent returned = event(OrderEventType.RETURNED);
+        UUID untrackedBook = UUID.randomUUID();
+        UUID trackedBook = UUID.randomUUID();
+        when(outboxRepository.lockNextBatch(2, Limit.of(3))).thenReturn(List.of(cancelled, returned));
+        when(orderItemRepository.sumQuantitiesByBook(List.of(cancelled.getOrderId(), returned.getOrderId())))
+                .thenReturn(List.of(quantity(untrackedBook, 5), quantity(trackedBook, 2)));
+        when(stockLedger.isTracked(any())).thenAnswer(invocation -> trackedBook.equals(invocation.getArgument(0)));
+
+        dispatcher.dispatch();
+
+        verify(bookRepository).adjustStock(untrackedBook, 5);
+        verify(bookRepository, never()).adjustStock(eq(trackedBook), anyInt());
+        verify(bookCache).evict(untrackedBook);
+        verify(bookCache).evict(trackedBook);
+        verify(orderRepository, never()).transitionStatus(any(), any(), any());
+        verify(stockLedger).release(trackedBook, 2);
+    }
+
+    @Test
+    @DisplayName("Should keep draining while batches come back full")
+    void shouldDrainFullBatches() {
+        when(outboxRepository.lockNextBatch(2, Limit.of(3))).thenReturn(
+                List.of(event(OrderEventType.PLACED), event(OrderEventType.PLACED), event(OrderEventType.PLACED)),
+                List.of(event(OrderEventType.PLACED)));
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository, times(2)).lockNextBatch(2, Limit.of(3));
+        verify(outboxRepository, times(2)).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Should dispatch the rest of a failed batch one event at a time")
+    void shouldIsolateFailingEvent() {
+        OrderOutboxEvent failing = event(OrderEventType.PLACED);
+        OrderOutboxEvent healthy = event(OrderEventType.PLACED);
+        when(outboxRepository.lockNextBatch(2, Limit.of(3))).thenReturn(List.of(failing, healthy));
+        when(outboxRepository.lockById(failing.getId())).thenReturn(Optional.of(failing));
+        when(outboxRepository.lockById(healthy.getId())).thenReturn(Optional.of(healthy));
+        when(orderRepository.transitionStatus(any(), any(), any())).thenAnswer(invocation -> {
+            if (invocation.<List<UUID>>getArgument(0).contains(failing.getOrderId())) {
+                throw new QueryTimeoutException("timeout");
+            }
+            return 1;
+        });
+
+        assertDoesNotThrow(dispatcher::dispatch);
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(healthy.getId()));
+        verify(outboxRepository, never()).deleteAllByIdInBatch(List.of(failing.getId()));
+        assertEquals(1, failing.getAttempts());
+        assertEquals(0, healthy.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should stop retrying an event once it reaches the attempt limit")
+    void shouldDeadLetterEventAtAttemptLimit() {
+        OrderOutboxEvent failing = event(OrderEventType.PLACED);
+        failing.setAttempts(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dispatcher.bindTo(registry);
+        when(outboxRepository.lockNextBatch(2, Limit.of(3))).thenReturn(List.of(failing));
+        when(outboxRepository.lockById(failing.getId())).thenReturn(Optional.of(failing));
+        when(orderRepository.transitionStatus(any(), any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertDoesNotThrow(dispatcher::dispatch);
+
+        assertEquals(2, failing.getAttempts());
+        assertEquals(1.0, registry.get("bookstore.orders.outbox.dead_lettered").functionCounter().count());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static OrderOutboxEvent event(OrderEventType type) {
+        return OrderOutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .type(type)
+                .build();
+    }
+
+    private static OrderItemRepository.BookQuantity quantity(UUID bookId, long quantity) {
+        return new OrderItemRepository.BookQuantity() {
+            @Override
+            public UUID getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
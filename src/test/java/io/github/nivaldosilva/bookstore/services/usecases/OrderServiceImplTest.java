@@ -1,5 +1,8 @@
 package io.github.nivaldosilva.bookstore.services.usecases;
 
+import io.github.nivaldosilva.bookstore.config.CacheConfig;
+import io.github.nivaldosilva.bookstore.dtos.common.CursorPagedResponse;
+import io.github.nivaldosilva.bookstore.dtos.common.PagedResponse;
 import io.github.nivaldosilva.bookstore.dtos.request.OrderItemRequest;
 import io.github.nivaldosilva.bookstore.dtos.request.OrderRequest;
 import io.github.nivaldosilva.bookstore.dtos.response.OrderResponse;
@@ -7,27 +10,56 @@ import io.github.nivaldosilva.bookstore.entities.Book;
 import io.github.nivaldosilva.bookstore.entities.Customer;
 import io.github.nivaldosilva.bookstore.entities.Order;
 import io.github.nivaldosilva.bookstore.entities.OrderItem;
+import io.github.nivaldosilva.bookstore.entities.OrderOutboxEvent;
+import io.github.nivaldosilva.bookstore.enums.OrderEventType;
 import io.github.nivaldosilva.bookstore.enums.OrderStatus;
 import io.github.nivaldosilva.bookstore.exceptions.BookNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.CustomerNotFoundException;
 import io.github.nivaldosilva.bookstore.exceptions.InsufficientStockException;
+import io.github.nivaldosilva.bookstore.exceptions.InvalidOrderStatusTransitionException;
 import io.github.nivaldosilva.bookstore.exceptions.OrderNotFoundException;
+import io.github.nivaldosilva.bookstore.mappers.CursorMapper;
 import io.github.nivaldosilva.bookstore.repositories.BookRepository;
 import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import io.github.nivaldosilva.bookstore.repositories.OrderOutboxRepository;
 import io.github.nivaldosilva.bookstore.repositories.OrderRepository;
+import io.github.nivaldosilva.bookstore.services.interfaces.StockLedger;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,12 +69,30 @@ class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
     @Mock
     private CustomerRepository customerRepository;
 
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private StockReturns stockReturns;
+
+    @Mock
+    private BookCache bookCache;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -98,17 +148,70 @@ class OrderServiceImplTest {
     @DisplayName("Should create order successfully")
     void shouldCreateOrderSuccessfully() {
         when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
-        when(bookRepository.findByIsbn(bookIsbn)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(book));
+        when(bookRepository.decrementStock(Map.of(bookId, 2))).thenReturn(Set.of());
         when(orderRepository.save(any(Order.class))).thenReturn(order);
+        cacheManager.getCache(CacheConfig.CUSTOMERS).put(customerId, "cached customer");
         OrderResponse result = orderService.createOrder(orderRequest);
         assertNotNull(result);
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS).get(customerId));
         assertEquals(order.getCustomer().getEmail(), result.customerEmail());
         assertEquals(order.getTotalAmount(), result.totalAmount());
         assertEquals(OrderStatus.PENDING, result.status());
         verify(customerRepository).findByEmail(customerEmail);
-        verify(bookRepository).findByIsbn(bookIsbn);
+        verify(bookRepository).findByIsbnIn(anyCollection());
+        verify(bookRepository, never()).findByIsbn(anyString());
+        verify(bookRepository).decrementStock(Map.of(bookId, 2));
+        verify(bookCache).evict(bookId);
+        verify(bookRepository, never()).save(any(Book.class));
         verify(orderRepository).save(any(Order.class));
-        verify(bookRepository).save(any(Book.class));
+        verify(outboxRepository).save(argThat((OrderOutboxEvent event) ->
+                event.getOrderId().equals(orderId) && event.getType() == OrderEventType.PLACED));
+    }
+
+    @Test
+    @DisplayName("Should merge duplicate ISBNs into a single order item")
+    void shouldMergeDuplicateIsbnsWhenCreatingOrder() {
+        OrderRequest duplicatedRequest = OrderRequest.builder()
+                .customerEmail(customerEmail)
+                .items(List.of(new OrderItemRequest(bookIsbn, 2), new OrderItemRequest(bookIsbn, 3)))
+                .build();
+        when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(book));
+        when(bookRepository.decrementStock(Map.of(bookId, 5))).thenReturn(Set.of());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        OrderResponse result = orderService.createOrder(duplicatedRequest);
+        assertEquals(1, result.items().size());
+        assertEquals(5, result.items().get(0).quantity());
+        assertEquals(BigDecimal.valueOf(29.99).multiply(BigDecimal.valueOf(5)), result.totalAmount());
+        verify(bookRepository).findByIsbnIn(argThat(isbns -> isbns.size() == 1 && isbns.contains(bookIsbn)));
+        verify(bookRepository).decrementStock(Map.of(bookId, 5));
+    }
+
+    @Test
+    @DisplayName("Should decrement the stock of every order line in one batched write")
+    void shouldDecrementAllLinesInOneWrite() {
+        Book otherBook = Book.builder()
+                .id(UUID.randomUUID())
+                .isbn("978-0439064873")
+                .title("Chamber of Secrets")
+                .price(BigDecimal.TEN)
+                .stockQuantity(1)
+                .build();
+        OrderRequest twoBooks = OrderRequest.builder()
+                .customerEmail(customerEmail)
+                .items(List.of(new OrderItemRequest(bookIsbn, 2), new OrderItemRequest(otherBook.getIsbn(), 3)))
+                .build();
+        when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(book, otherBook));
+        when(bookRepository.decrementStock(Map.of(bookId, 2, otherBook.getId(), 3))).thenReturn(Set.of(otherBook.getId()));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(twoBooks));
+
+        assertTrue(exception.getMessage().contains("Chamber of Secrets"));
+        verify(bookRepository).decrementStock(any());
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
@@ -134,10 +237,10 @@ class OrderServiceImplTest {
     @DisplayName("Should throw BookNotFoundException when a book in order does not exist")
     void shouldThrowBookNotFoundExceptionWhenCreatingOrder() {
         when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
-        when(bookRepository.findByIsbn(bookIsbn)).thenReturn(Optional.empty());
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of());
         assertThrows(BookNotFoundException.class, () -> orderService.createOrder(orderRequest));
         verify(customerRepository).findByEmail(customerEmail);
-        verify(bookRepository).findByIsbn(bookIsbn);
+        verify(bookRepository).findByIsbnIn(anyCollection());
         verify(orderRepository, never()).save(any(Order.class));
     }
 
@@ -150,83 +253,281 @@ class OrderServiceImplTest {
                 .stockQuantity(1)
                 .build();
         when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
-        when(bookRepository.findByIsbn(bookIsbn)).thenReturn(Optional.of(bookWithLowStock));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(bookWithLowStock));
+        when(bookRepository.decrementStock(Map.of(bookId, 2))).thenReturn(Set.of(bookId));
         assertThrows(InsufficientStockException.class, () -> orderService.createOrder(orderRequest));
         verify(customerRepository).findByEmail(customerEmail);
-        verify(bookRepository).findByIsbn(bookIsbn);
+        verify(bookRepository).findByIsbnIn(anyCollection());
+        verify(bookRepository).decrementStock(Map.of(bookId, 2));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should reserve stock through the ledger for tracked books")
+    void shouldReserveStockThroughLedgerForTrackedBooks() {
+        when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(book));
+        when(stockLedger.isTracked(bookId)).thenReturn(true);
+        when(stockLedger.tryReserve(bookId, 2)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        orderService.createOrder(orderRequest);
+        verify(stockLedger).tryReserve(bookId, 2);
+        verify(bookRepository).decrementStock(Map.of());
+    }
+
+    @Test
+    @DisplayName("Should move a reservation to the ledger when the book was tracked while decrementing")
+    void shouldMoveReservationToLedgerWhenTrackedDuringDecrement() {
+        when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(book));
+        when(stockLedger.isTracked(bookId)).thenReturn(false, true);
+        when(bookRepository.decrementStock(Map.of(bookId, 2))).thenReturn(Set.of());
+        when(stockLedger.tryReserve(bookId, 2)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        orderService.createOrder(orderRequest);
+        InOrder inOrder = inOrder(bookRepository, stockLedger);
+        inOrder.verify(bookRepository).decrementStock(Map.of(bookId, 2));
+        inOrder.verify(bookRepository).adjustStock(bookId, 2);
+        inOrder.verify(stockLedger).tryReserve(bookId, 2);
+    }
+
+    @Test
+    @DisplayName("Should throw InsufficientStockException when the ledger rejects the reservation")
+    void shouldThrowInsufficientStockExceptionWhenLedgerRejects() {
+        when(customerRepository.findByEmail(customerEmail)).thenReturn(Optional.of(customer));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(book));
+        when(stockLedger.isTracked(bookId)).thenReturn(true);
+        when(stockLedger.tryReserve(bookId, 2)).thenReturn(false);
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(orderRequest));
         verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
     @DisplayName("Should find order by ID successfully")
     void shouldFindOrderByIdSuccessfully() {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.of(order));
         OrderResponse result = orderService.findOrderById(orderId);
         assertNotNull(result);
         assertEquals(order.getId(), result.id());
         assertEquals(order.getTotalAmount(), result.totalAmount());
-        verify(orderRepository).findById(orderId);
+        verify(orderRepository).findWithDetailsById(orderId);
     }
 
     @Test
     @DisplayName("Should throw OrderNotFoundException when order not found by ID")
     void shouldThrowOrderNotFoundExceptionWhenNotFound() {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.empty());
         assertThrows(OrderNotFoundException.class, () -> orderService.findOrderById(orderId));
-        verify(orderRepository).findById(orderId);
+        verify(orderRepository).findWithDetailsById(orderId);
     }
 
     @Test
     @DisplayName("Should find all orders successfully")
     void shouldFindAllOrdersSuccessfully() {
-        List<Order> orders = List.of(order);
-        when(orderRepository.findAll()).thenReturn(orders);
-        List<OrderResponse> result = orderService.findAllOrders();
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+        when(orderRepository.findIds(ArgumentMatchers.<Specification<Order>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(orderId), pageable, 1));
+        when(orderRepository.findWithDetailsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+        PagedResponse<OrderResponse> result = orderService.findAllOrders(pageable, null, null, null, null);
         assertNotNull(result);
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(order.getId(), result.get(0).id());
-        verify(orderRepository).findAll();
+        assertEquals(1, result.content().size());
+        assertEquals(order.getId(), result.content().get(0).id());
+        assertEquals(1L, result.totalElements());
+        verify(orderRepository).findWithDetailsByIdIn(List.of(orderId));
+    }
+
+    @Test
+    @DisplayName("Should keep the id page order and add an id tie-breaker when listing orders")
+    void shouldKeepIdPageOrderWhenListingOrders() {
+        Order olderOrder = Order.builder().id(UUID.randomUUID()).customer(customer)
+                .totalAmount(BigDecimal.TEN).status(OrderStatus.DELIVERED).items(List.of()).build();
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt"));
+        when(orderRepository.findIds(ArgumentMatchers.<Specification<Order>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(orderId, olderOrder.getId()), pageable, 2));
+        when(orderRepository.findWithDetailsByIdIn(anyCollection())).thenReturn(List.of(olderOrder, order));
+
+        PagedResponse<OrderResponse> result = orderService.findAllOrders(pageable, OrderStatus.PENDING, customerId, null, null);
+
+        assertEquals(List.of(orderId, olderOrder.getId()), result.content().stream().map(OrderResponse::id).toList());
+        verify(orderRepository).findIds(ArgumentMatchers.<Specification<Order>>any(),
+                argThat(p -> p.getSort().equals(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id")))));
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should not load orders when the id page is empty")
+    void shouldNotLoadOrdersWhenIdPageIsEmpty() {
+        Pageable pageable = PageRequest.of(3, 20);
+        when(orderRepository.findIds(ArgumentMatchers.<Specification<Order>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+        PagedResponse<OrderResponse> result = orderService.findAllOrders(pageable, null, null, null, null);
+        assertTrue(result.content().isEmpty());
+        verify(orderRepository, never()).findWithDetailsByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for an inverted created-at range")
+    void shouldThrowIllegalArgumentExceptionForInvertedDateRange() {
+        LocalDateTime from = LocalDateTime.of(2025, 2, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 1, 0, 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.findAllOrders(PageRequest.of(0, 20), null, null, from, to));
+        verify(orderRepository, never()).findIds(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when the page size exceeds the limit")
+    void shouldThrowIllegalArgumentExceptionWhenPageSizeExceedsLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.findAllOrders(PageRequest.of(0, 1000), null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.scrollOrders(null, 1000, Sort.Direction.DESC, null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Should export orders window by window and clear the persistence context after each")
+    void shouldExportOrdersInKeysetChunks() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+        Order secondOrder = Order.builder().id(UUID.randomUUID()).customer(customer)
+                .totalAmount(BigDecimal.TEN).status(OrderStatus.DELIVERED).items(List.of()).build();
+        Window<OrderRepository.OrderKey> firstWindow = Window.from(List.of(orderKey(orderId, createdAt)),
+                index -> ScrollPosition.forward(Map.of("createdAt", createdAt, "id", orderId)), true);
+        Window<OrderRepository.OrderKey> lastWindow = Window.from(
+                List.of(orderKey(secondOrder.getId(), createdAt.plusDays(1))), ScrollPosition::offset, false);
+        when(orderRepository.scrollKeys(ArgumentMatchers.<Specification<Order>>any(), any(KeysetScrollPosition.class),
+                eq(Sort.by("createdAt", "id")), eq(ExportStreams.CHUNK_SIZE))).thenReturn(firstWindow, lastWindow);
+        when(orderRepository.findWithDetailsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+        when(orderRepository.findWithDetailsByIdIn(List.of(secondOrder.getId()))).thenReturn(List.of(secondOrder));
+        List<OrderResponse> exported = new ArrayList<>();
+
+        orderService.exportOrders(exported::add);
+
+        assertEquals(List.of(orderId, secondOrder.getId()), exported.stream().map(OrderResponse::id).toList());
+        verify(orderRepository, times(2)).scrollKeys(any(), any(), any(), anyInt());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Should scroll orders and return a cursor for the next window")
+    void shouldScrollOrdersWithNextCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+        OrderRepository.OrderKey key = orderKey(orderId, createdAt);
+        Window<OrderRepository.OrderKey> window = Window.from(List.of(key),
+                index -> ScrollPosition.forward(Map.of("createdAt", createdAt, "id", orderId)), true);
+        when(orderRepository.scrollKeys(ArgumentMatchers.<Specification<Order>>any(), any(KeysetScrollPosition.class),
+                eq(Sort.by(Sort.Direction.DESC, "createdAt", "id")), eq(1))).thenReturn(window);
+        when(orderRepository.findWithDetailsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+
+        CursorPagedResponse<OrderResponse> result = orderService.scrollOrders(null, 1, Sort.Direction.DESC,
+                null, null, null, null);
+
+        assertEquals(1, result.content().size());
+        assertFalse(result.last());
+        KeysetScrollPosition next = CursorMapper.toPosition(result.nextCursor(), Order.class, Set.of("createdAt", "id"));
+        assertEquals(createdAt, next.getKeys().get("createdAt"));
+        assertEquals(orderId, next.getKeys().get("id"));
     }
 
     @Test
     @DisplayName("Should update order status successfully")
     void shouldUpdateOrderStatusSuccessfully() {
         OrderStatus newStatus = OrderStatus.SHIPPED;
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        order.setStatus(OrderStatus.PROCESSING);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.of(order));
         OrderResponse result = orderService.updateOrderStatus(orderId, newStatus);
         assertNotNull(result);
         assertEquals(newStatus, result.status());
-        verify(orderRepository).findById(orderId);
-        verify(orderRepository).save(any(Order.class));
+        verify(orderRepository).findByIdForUpdate(orderId);
+        verify(orderRepository).save(order);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should queue the stock return when an order is cancelled")
+    void shouldQueueStockReturnWhenCancelled() {
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithDetailsById(orderId)).thenReturn(Optional.of(order));
+
+        OrderResponse result = orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+
+        assertEquals(OrderStatus.CANCELLED, result.status());
+        verify(outboxRepository).save(argThat((OrderOutboxEvent event) ->
+                event.getOrderId().equals(orderId) && event.getType() == OrderEventType.CANCELLED));
+        verify(stockLedger, never()).release(any(), anyInt());
+        verify(bookRepository, never()).adjustStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject a status change the order lifecycle does not allow")
+    void shouldRejectInvalidStatusTransition() {
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+
+        assertThrows(InvalidOrderStatusTransitionException.class,
+                () -> orderService.updateOrderStatus(orderId, OrderStatus.DELIVERED));
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(outboxRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should throw OrderNotFoundException when updating status of non-existing order")
     void shouldThrowOrderNotFoundExceptionWhenUpdatingStatus() {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.empty());
         assertThrows(OrderNotFoundException.class,
                 () -> orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED));
-        verify(orderRepository).findById(orderId);
+        verify(orderRepository).findByIdForUpdate(orderId);
         verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
-    @DisplayName("Should delete order successfully")
+    @DisplayName("Should delete order successfully along with its outbox events")
     void shouldDeleteOrderSuccessfully() {
-        when(orderRepository.existsById(orderId)).thenReturn(true);
+        OrderOutboxEvent placed = OrderOutboxEvent.builder().orderId(orderId).type(OrderEventType.PLACED).build();
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(outboxRepository.lockByOrderId(orderId)).thenReturn(List.of(placed));
         orderService.deleteOrder(orderId);
-        verify(orderRepository).existsById(orderId);
-        verify(orderRepository).deleteById(orderId);
+        verify(outboxRepository).deleteAllInBatch(List.of(placed));
+        verify(orderRepository).delete(order);
+        verify(stockReturns, never()).returnStock(any());
+    }
+
+    @Test
+    @DisplayName("Should return the stock of a cancellation not dispatched yet when deleting its order")
+    void shouldReturnPendingStockWhenDeletingCancelledOrder() {
+        order.setStatus(OrderStatus.CANCELLED);
+        OrderOutboxEvent cancelled = OrderOutboxEvent.builder().orderId(orderId).type(OrderEventType.CANCELLED)
+                .build();
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(outboxRepository.lockByOrderId(orderId)).thenReturn(List.of(), List.of(cancelled));
+        orderService.deleteOrder(orderId);
+        InOrder inOrder = inOrder(stockReturns, orderRepository);
+        inOrder.verify(stockReturns).returnStock(List.of(orderId));
+        inOrder.verify(orderRepository).delete(order);
+        verify(outboxRepository).deleteAllInBatch(List.of(cancelled));
     }
 
     @Test
     @DisplayName("Should throw OrderNotFoundException when deleting non-existing order")
     void shouldThrowOrderNotFoundExceptionWhenDeleting() {
-        when(orderRepository.existsById(orderId)).thenReturn(false);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.empty());
         assertThrows(OrderNotFoundException.class, () -> orderService.deleteOrder(orderId));
-        verify(orderRepository).existsById(orderId);
-        verify(orderRepository, never()).deleteById(any());
+        verify(orderRepository, never()).delete(any(Order.class));
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    private static OrderRepository.OrderKey orderKey(UUID id, LocalDateTime createdAt) {
+        return new OrderRepository.OrderKey() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
     }
 }
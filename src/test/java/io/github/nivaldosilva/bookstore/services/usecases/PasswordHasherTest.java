@@ -0,0 +1,102 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.PasswordHashingProperties;
+import io.github.nivaldosilva.bookstore.config.SecurityConfig;
+import io.github.nivaldosilva.bookstore.exceptions.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PasswordHasher Tests")
+class PasswordHasherTest {
+
+    private static final String PASSWORD = "S3nh@-Forte-2024";
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Test
+    @DisplayName("Should hash with the configured algorithm and verify the result")
+    void shouldHashAndVerify() {
+        passwordHasher = hasher(SecurityConfig.ARGON2, 4, 1, 4);
+
+        String hash = passwordHasher.encode(PASSWORD);
+
+        assertTrue(hash.startsWith("{argon2}"));
+        assertEquals(new PasswordHasher.Verification(true, null), passwordHasher.verify(PASSWORD, hash));
+        assertFalse(passwordHasher.verify("outra-senha", hash).matches());
+    }
+
+    @Test
+    @DisplayName("Should upgrade legacy and weaker BCrypt hashes once the password matches")
+    void shouldUpgradeOutdatedHashes() {
+        passwordHasher = hasher(SecurityConfig.BCRYPT, 5, 1, 4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        PasswordHasher.Verification legacy = passwordHasher.verify(PASSWORD, legacyHash);
+        PasswordHasher.Verification weaker = passwordHasher.verify(PASSWORD, "{bcrypt}" + legacyHash);
+
+        assertTrue(legacy.matches());
+        assertTrue(legacy.upgradedHash().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(weaker.upgradedHash().startsWith("{bcrypt}$2a$05$"));
+        assertNull(passwordHasher.verify(PASSWORD, legacy.upgradedHash()).upgradedHash());
+        assertFalse(passwordHasher.verify("outra-senha", legacyHash).matches());
+    }
+
+    @Test
+    @DisplayName("Should turn hashes away once the worker and the queue are busy")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        passwordHasher = new PasswordHasher(slowEncoder, new PasswordHashingProperties(SecurityConfig.BCRYPT, 4, 1, 1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        passwordHasher.bindTo(meterRegistry);
+
+        Thread running = Thread.ofVirtual().start(() -> passwordHasher.encode(PASSWORD));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread queued = Thread.ofVirtual().start(() -> passwordHasher.encode(PASSWORD));
+        while (meterRegistry.get("bookstore.password.hashing.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> passwordHasher.encode(PASSWORD));
+        release.countDown();
+        running.join();
+        queued.join();
+        assertEquals(1, meterRegistry.get("bookstore.password.hashing.rejected").functionCounter().count());
+        assertEquals("hash", passwordHasher.encode(PASSWORD));
+    }
+
+    private static PasswordHasher hasher(String algorithm, int bcryptStrength, int workers, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties(algorithm, bcryptStrength, workers,
+                queueCapacity);
+        return new PasswordHasher(new SecurityConfig().passwordEncoder(properties), properties);
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.SingleFlightProperties;
+import io.github.nivaldosilva.bookstore.exceptions.BookNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight(
+            new SingleFlightProperties(true, Duration.ofSeconds(5), Map.of("book-by-isbn", Duration.ofMillis(50))));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    @DisplayName("Should share one in-flight load between concurrent callers")
+    void shouldCoalesceConcurrentCalls() throws Exception {
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", blockingLoader("value")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = follow(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", blockingLoader("other")));
+
+        release.countDown();
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should hand the leader's exception to its followers")
+    void shouldShareFailures() throws Exception {
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", () -> {
+                    started.countDown();
+                    await(release);
+                    throw new BookNotFoundException();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = follow(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", blockingLoader("other")));
+
+        release.countDown();
+
+        assertInstanceOf(BookNotFoundException.class,
+                assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertInstanceOf(BookNotFoundException.class,
+                assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not reuse a completed load")
+    void shouldNotCacheResults() {
+        singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", loader("first"));
+
+        assertEquals("second", singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", loader("second")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should start a new load for callers arriving after the key is forgotten")
+    void shouldNotJoinLoadStartedBeforeWrite() throws Exception {
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", blockingLoader("before")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        singleFlight.forget(SingleFlight.Group.BOOK_BY_ID, "id-1");
+
+        assertEquals("after", singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", loader("after")));
+        release.countDown();
+        assertEquals("before", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should forget every key of a group and only that group")
+    void shouldForgetWholeGroup() throws Exception {
+        CompletableFuture<String> page = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_PAGE, "page-0", blockingLoader("before")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CountDownLatch otherStarted = new CountDownLatch(1);
+        CompletableFuture<String> byId = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "page-0", () -> {
+                    otherStarted.countDown();
+                    await(release);
+                    return "by-id";
+                }));
+        assertTrue(otherStarted.await(5, TimeUnit.SECONDS));
+
+        singleFlight.forget(SingleFlight.Group.BOOK_PAGE);
+
+        assertEquals("after", singleFlight.execute(SingleFlight.Group.BOOK_PAGE, "page-0", loader("after")));
+        CompletableFuture<String> follower = follow(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "page-0", loader("other")));
+        release.countDown();
+        assertEquals("before", page.get(5, TimeUnit.SECONDS));
+        assertEquals("by-id", byId.get(5, TimeUnit.SECONDS));
+        assertEquals("by-id", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should keep different keys and groups apart")
+    void shouldSeparateKeys() throws Exception {
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-1", blockingLoader("value")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("isbn", singleFlight.execute(SingleFlight.Group.BOOK_BY_ISBN, "id-1", loader("isbn")));
+        assertEquals("id-2", singleFlight.execute(SingleFlight.Group.BOOK_BY_ID, "id-2", loader("id-2")));
+        release.countDown();
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should run the load itself once the group's timeout expires")
+    void shouldFallBackAfterTimeout() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        singleFlight.bindTo(registry);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(SingleFlight.Group.BOOK_BY_ISBN, "isbn", blockingLoader("slow")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("own", singleFlight.execute(SingleFlight.Group.BOOK_BY_ISBN, "isbn", loader("own")));
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, registry.get("bookstore.single-flight.calls").tag("group", "book-by-isbn")
+                .tag("result", "timeout").functionCounter().count());
+        assertEquals(1, registry.get("bookstore.single-flight.calls").tag("group", "book-by-isbn")
+                .tag("result", "leader").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should call the loader directly when disabled")
+    void shouldPassThroughWhenDisabled() {
+        SingleFlight disabled = new SingleFlight(new SingleFlightProperties(false, Duration.ofSeconds(5), null));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        disabled.bindTo(registry);
+
+        assertEquals("value", disabled.execute(SingleFlight.Group.BOOK_PAGE, "page", loader("value")));
+        assertEquals(0, registry.get("bookstore.single-flight.calls").tag("group", "book-page")
+                .tag("result", "leader").functionCounter().count());
+    }
+
+    private Supplier<String> loader(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+
+    private Supplier<String> blockingLoader(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return value;
+        };
+    }
+
+    // Runs a call on its own thread and returns once it is parked waiting for the in-flight one.
+    private static CompletableFuture<String> follow(Supplier<String> call) throws InterruptedException {
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> {
+            thread.set(Thread.currentThread());
+            return call.get();
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return follower;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.StockLedgerProperties;
+import io.github.nivaldosilva.bookstore.entities.Author;
+import io.github.nivaldosilva.bookstore.entities.Book;
+import io.github.nivaldosilva.bookstore.enums.Genre;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.StockLedgerBookRepository;
+import io.github.nivaldosilva.bookstore.repositories.StockLedgerDeltaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("StockLedger H2 Tests")
+class StockLedgerImplDataJpaTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private StockLedgerDeltaRepository deltaRepository;
+
+    @Autowired
+    private StockLedgerBookRepository trackedBookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private UUID bookId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Author author = authorRepository.save(Author.builder()
+                .name("Machado de Assis")
+                .nationality("Brasileiro")
+                .birthDate(LocalDate.of(1839, 6, 21))
+                .build());
+        bookId = bookRepository.save(Book.builder()
+                .isbn("9788535910663")
+                .title("Dom Casmurro")
+                .genre(Genre.FICTION)
+                .publicationDate(LocalDate.of(1899, 1, 1))
+                .price(BigDecimal.TEN)
+                .stockQuantity(10)
+                .author(author)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deltaRepository.deleteAllInBatch();
+        trackedBookRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should apply committed reservations on restart after a crash before any flush")
+    void shouldRecoverCommittedReservationsAfterCrash() {
+        StockLedgerImpl crashed = newLedger();
+        crashed.track(bookId, 10);
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> crashed.tryReserve(bookId, 3)));
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> {
+            boolean reserved = crashed.tryReserve(bookId, 2);
+            status.setRollbackOnly();
+            return reserved;
+        }));
+        assertEquals(1, deltaRepository.count());
+
+        // The process dies here: nothing was flushed and the in-memory counters are gone.
+        StockLedgerImpl restarted = newLedger();
+        restarted.recover();
+
+        assertEquals(7, bookRepository.findById(bookId).orElseThrow().getStockQuantity());
+        assertEquals(0, deltaRepository.count());
+        assertTrue(restarted.isTracked(bookId));
+        assertTrue(restarted.tryReserve(bookId, 7));
+        assertFalse(restarted.tryReserve(bookId, 1));
+    }
+
+    @Test
+    @DisplayName("Should count committed deltas that are not flushed yet when tracking a book")
+    void shouldTrackWithPendingDeltas() {
+        StockLedgerImpl first = newLedger();
+        first.track(bookId, 10);
+        transactionTemplate.executeWithoutResult(status -> first.tryReserve(bookId, 4));
+
+        StockLedgerImpl second = newLedger();
+        second.track(bookId, bookRepository.findById(bookId).orElseThrow().getStockQuantity());
+
+        assertTrue(second.tryReserve(bookId, 6));
+        assertFalse(second.tryReserve(bookId, 1));
+    }
+
+    private StockLedgerImpl newLedger() {
+        return new StockLedgerImpl(bookRepository, deltaRepository, trackedBookRepository, mock(BookCache.class),
+                transactionManager, new StockLedgerProperties(true, Duration.ofSeconds(1)));
+    }
+}
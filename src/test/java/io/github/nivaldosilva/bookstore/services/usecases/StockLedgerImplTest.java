@@ -0,0 +1,246 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.StockLedgerProperties;
+import io.github.nivaldosilva.bookstore.entities.StockLedgerDelta;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.StockLedgerBookRepository;
+import io.github.nivaldosilva.bookstore.repositories.StockLedgerDeltaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockLedger Tests")
+class StockLedgerImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private StockLedgerDeltaRepository deltaRepository;
+
+    @Mock
+    private StockLedgerBookRepository trackedBookRepository;
+
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockLedgerImpl stockLedger;
+    private UUID bookId;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        stockLedger = newLedger(true);
+        bookId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should never oversell under thousands of parallel reservations")
+    void shouldNeverOversellUnderParallelReservations() throws Exception {
+        int stock = 1_000;
+        int attempts = 8_000;
+        stockLedger.track(bookId, stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (stockLedger.tryReserve(bookId, 1)) {
+                    reserved.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(stock, reserved.get());
+        assertFalse(stockLedger.tryReserve(bookId, 1));
+        verify(deltaRepository, times(stock)).save(argThat(delta -> delta.getDelta() == -1));
+    }
+
+    @Test
+    @DisplayName("Should start tracking from the stock plus the deltas not flushed yet")
+    void shouldTrackFromStockPlusPendingDeltas() {
+        when(deltaRepository.sumByBookId(bookId)).thenReturn(-3L);
+
+        stockLedger.track(bookId, 10);
+
+        assertTrue(stockLedger.tryReserve(bookId, 7));
+        assertFalse(stockLedger.tryReserve(bookId, 1));
+    }
+
+    @Test
+    @DisplayName("Should make released stock reservable again")
+    void shouldMakeReleasedStockReservableAgain() {
+        stockLedger.track(bookId, 2);
+        assertTrue(stockLedger.tryReserve(bookId, 2));
+        assertFalse(stockLedger.tryReserve(bookId, 1));
+
+        stockLedger.release(bookId, 2);
+
+        assertTrue(stockLedger.tryReserve(bookId, 1));
+        verify(deltaRepository).save(argThat(delta -> delta.getDelta() == 2));
+    }
+
+    @Test
+    @DisplayName("Should only make released stock reservable once its transaction commits")
+    void shouldReleaseStockAfterCommit() {
+        stockLedger.track(bookId, 0);
+        TransactionSynchronizationManager.initSynchronization();
+
+        stockLedger.release(bookId, 2);
+
+        assertFalse(stockLedger.tryReserve(bookId, 1));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertTrue(stockLedger.tryReserve(bookId, 2));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalStateException when reserving an untracked book")
+    void shouldThrowIllegalStateExceptionWhenReservingUntrackedBook() {
+        assertThrows(IllegalStateException.class, () -> stockLedger.tryReserve(bookId, 1));
+    }
+
+    @Test
+    @DisplayName("Should give the units back when the order's transaction rolls back")
+    void shouldGiveUnitsBackOnRollback() {
+        stockLedger.track(bookId, 10);
+
+        assertTrue(reserveInTransaction(4, TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertTrue(reserveInTransaction(3, TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(stockLedger.tryReserve(bookId, 7));
+        assertFalse(stockLedger.tryReserve(bookId, 1));
+    }
+
+    @Test
+    @DisplayName("Should give the units back when the delta cannot be recorded")
+    void shouldGiveUnitsBackWhenDeltaFails() {
+        stockLedger.track(bookId, 5);
+        when(deltaRepository.save(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> stockLedger.tryReserve(bookId, 5));
+
+        reset(deltaRepository);
+        assertTrue(stockLedger.tryReserve(bookId, 5));
+    }
+
+    @Test
+    @DisplayName("Should fold committed deltas into the books table per book and delete them")
+    void shouldFlushDeltasPerBook() {
+        UUID otherBookId = UUID.randomUUID();
+        List<StockLedgerDelta> batch = List.of(delta(bookId, -3), delta(bookId, -2), delta(otherBookId, 4));
+        when(deltaRepository.lockNextBatch(Limit.of(1_000))).thenReturn(batch);
+
+        stockLedger.flush();
+
+        verify(bookRepository).adjustStock(bookId, -5);
+        verify(bookRepository).adjustStock(otherBookId, 4);
+        verify(deltaRepository).deleteAllInBatch(batch);
+        verify(bookCache).evict(bookId);
+        verify(bookCache).evict(otherBookId);
+    }
+
+    @Test
+    @DisplayName("Should keep the deltas for the next flush when the database write fails")
+    void shouldRetryDeltasWhenFlushFails() {
+        List<StockLedgerDelta> batch = List.of(delta(bookId, -3));
+        when(deltaRepository.lockNextBatch(Limit.of(1_000))).thenReturn(batch);
+        when(bookRepository.adjustStock(bookId, -3))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+
+        stockLedger.flush();
+        verify(deltaRepository, never()).deleteAllInBatch(any());
+        stockLedger.flush();
+
+        verify(bookRepository, times(2)).adjustStock(bookId, -3);
+        verify(deltaRepository).deleteAllInBatch(batch);
+    }
+
+    @Test
+    @DisplayName("Should flush pending deltas when a book is untracked")
+    void shouldFlushPendingDeltasWhenUntracked() {
+        stockLedger.track(bookId, 10);
+        stockLedger.tryReserve(bookId, 4);
+        when(deltaRepository.lockNextBatch(Limit.of(1_000))).thenReturn(List.of(delta(bookId, -4)));
+
+        stockLedger.untrack(bookId);
+
+        assertFalse(stockLedger.isTracked(bookId));
+        verify(trackedBookRepository).deleteById(bookId);
+        verify(bookRepository).adjustStock(bookId, -4);
+    }
+
+    @Test
+    @DisplayName("Should refuse to track books while the ledger is disabled")
+    void shouldRefuseTrackingWhenDisabled() {
+        StockLedgerImpl disabled = newLedger(false);
+
+        assertThrows(IllegalStateException.class, () -> disabled.track(bookId, 10));
+        verify(bookRepository, never()).adjustStock(any(), anyInt());
+    }
+
+    private boolean reserveInTransaction(int quantity, int outcome) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            boolean reserved = stockLedger.tryReserve(bookId, quantity);
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(outcome));
+            return reserved;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static StockLedgerDelta delta(UUID bookId, int delta) {
+        return StockLedgerDelta.builder().id(UUID.randomUUID()).bookId(bookId).delta(delta).build();
+    }
+
+    private StockLedgerImpl newLedger(boolean enabled) {
+        return new StockLedgerImpl(bookRepository, deltaRepository, trackedBookRepository, bookCache,
+                transactionManager, new StockLedgerProperties(enabled, Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.nivaldosilva.bookstore.services.usecases;
+
+import io.github.nivaldosilva.bookstore.config.UniquenessFilterProperties;
+import io.github.nivaldosilva.bookstore.repositories.AuthorRepository;
+import io.github.nivaldosilva.bookstore.repositories.BookRepository;
+import io.github.nivaldosilva.bookstore.repositories.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UniquenessFilters Tests")
+class UniquenessFiltersTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UniquenessFilters filters;
+    private AtomicInteger lookups;
+    private Predicate<String> lookup;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(bookRepository.streamAllIsbns()).thenAnswer(invocation -> List.of("9780000000001").stream());
+        lenient().when(customerRepository.streamAllEmails()).thenAnswer(invocation -> List.of("ana@example.com").stream());
+        lenient().when(authorRepository.streamAllNames()).thenAnswer(invocation -> List.of("José Saramago").stream());
+        filters = filters(true);
+        lookups = new AtomicInteger();
+        lookup = value -> {
+            lookups.incrementAndGet();
+            return false;
+        };
+    }
+
+    @Test
+    @DisplayName("Should query the database for every check until the filters are built")
+    void shouldQueryUntilBuilt() {
+        assertFalse(filters.exists(UniquenessFilters.Key.ISBN, "9789999999999", lookup));
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Should skip the database for values the filter rules out")
+    void shouldSkipDefiniteNegatives() {
+        filters.rebuild();
+
+        assertFalse(filters.exists(UniquenessFilters.Key.ISBN, "9789999999999", lookup));
+        assertFalse(filters.exists(UniquenessFilters.Key.EMAIL, "bia@example.com", lookup));
+
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Should fall through to the database for stored and newly added values")
+    void shouldQueryPossiblePositives() {
+        filters.rebuild();
+        filters.add(UniquenessFilters.Key.ISBN, "9789999999999");
+
+        assertTrue(filters.exists(UniquenessFilters.Key.ISBN, "9780000000001", value -> true));
+        filters.exists(UniquenessFilters.Key.ISBN, "9789999999999", lookup);
+        filters.exists(UniquenessFilters.Key.EMAIL, "ANA@example.com", lookup);
+        filters.exists(UniquenessFilters.Key.AUTHOR_NAME, "jose saramago", lookup);
+
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Should drop deleted values on rebuild")
+    void shouldShedDeletedValuesOnRebuild() {
+        filters.rebuild();
+        when(bookRepository.streamAllIsbns()).thenAnswer(invocation -> List.<String>of().stream());
+
+        filters.rebuild();
+
+        assertFalse(filters.exists(UniquenessFilters.Key.ISBN, "9780000000001", lookup));
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Should keep querying the database when disabled")
+    void shouldNotFilterWhenDisabled() {
+        UniquenessFilters disabled = filters(false);
+
+        disabled.rebuild();
+        disabled.exists(UniquenessFilters.Key.ISBN, "9789999999999", lookup);
+
+        assertEquals(1, lookups.get());
+        verify(bookRepository, never()).streamAllIsbns();
+    }
+
+    @Test
+    @DisplayName("Should count skipped and confirmed checks")
+    void shouldCountChecks() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filters.bindTo(registry);
+        filters.rebuild();
+
+        filters.exists(UniquenessFilters.Key.ISBN, "9789999999999", lookup);
+        filters.exists(UniquenessFilters.Key.ISBN, "9780000000001", value -> true);
+
+        assertEquals(1, registry.get("bookstore.uniqueness.checks").tag("key", "isbn").tag("result", "skipped")
+                .functionCounter().count());
+        assertEquals(1, registry.get("bookstore.uniqueness.checks").tag("key", "isbn").tag("result", "confirmed")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the configured rate")
+    void shouldKeepFalsePositiveRate() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloomFilter.add("present-" + i));
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> bloomFilter.mightContain("absent-" + i))
+                .count();
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> bloomFilter.mightContain("present-" + i)));
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    private UniquenessFilters filters(boolean enabled) {
+        return new UniquenessFilters(bookRepository, customerRepository, authorRepository, transactionManager,
+                new UniquenessFilterProperties(enabled, 1000, 0.01, Duration.ofHours(1)));
+    }
+}